@@ -0,0 +1,105 @@
+package com.syncbridge.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+import com.syncbridge.annotation.Monitored;
+import com.syncbridge.aspect.SyncAspect;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Per-call overhead of {@link SyncAspect}: a trivial method called directly, through the proxy
+ * untagged, and through the proxy with a tag read from a parameter. Info logging is off, as in
+ * production, so the numbers show the metric recording itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AspectBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private Target direct;
+    private Target proxied;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(SyncAspect.class)).setLevel(Level.WARN);
+        context = new AnnotationConfigApplicationContext(Config.class);
+        direct = new Target();
+        proxied = context.getBean(Target.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int direct() {
+        return direct.tagged("customers", 42);
+    }
+
+    @Benchmark
+    public int monitoredUntagged() {
+        return proxied.untagged(42);
+    }
+
+    @Benchmark
+    public int monitoredTagged() {
+        return proxied.tagged("customers", 42);
+    }
+
+    public static class Target {
+        @Monitored(name = "bench.untagged")
+        public int untagged(int value) {
+            return value + 1;
+        }
+
+        @Monitored(name = "bench.tagged", tags = {"model"})
+        public int tagged(String model, int value) {
+            return value + model.length();
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        SyncAspect syncAspect() {
+            return new SyncAspect();
+        }
+
+        @Bean
+        Target target() {
+            return new Target();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.syncbridge.benchmark;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.syncbridge.dto.SyncDtos;
+
+/**
+ * Deterministic sync payloads for the benchmarks. {@code seq} offsets every natural key (email,
+ * product name, order number, employee id) so consecutive batches never collide in the database.
+ */
+final class BenchmarkData {
+
+    static final String[] MODELS = {"customers", "products", "orders", "employees"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Orders reference {@code customerId} and cycle through {@code productIds}, which must exist
+     * before the batch is written; the other models ignore them.
+     */
+    static List<Object> dtos(String model, int size, long seq, Long customerId, List<Long> productIds) {
+        List<Object> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long n = seq + i;
+            switch (model) {
+                case "customers" -> rows.add(customer(n));
+                case "products" -> rows.add(product(n));
+                case "orders" -> rows.add(order(n, customerId, productIds));
+                case "employees" -> rows.add(employee(n));
+                default -> throw new IllegalArgumentException("Unknown model: " + model);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The same rows as a {@code POST /api/v1/sync} body.
+     */
+    static byte[] envelope(ObjectMapper mapper, String model, List<Object> rows) throws Exception {
+        return mapper.writeValueAsBytes(Map.of("model", model, "data", rows));
+    }
+
+    private static SyncDtos.CustomerDto customer(long n) {
+        SyncDtos.CustomerDto d = new SyncDtos.CustomerDto();
+        d.setEmail("bench.customer." + n + "@example.com");
+        d.setFirstName("Bench");
+        d.setLastName("Customer" + n);
+        d.setDefaultCurrency("USD");
+        return d;
+    }
+
+    private static SyncDtos.ProductDto product(long n) {
+        SyncDtos.ProductDto d = new SyncDtos.ProductDto();
+        d.setName("bench-product-" + n);
+        d.setDescription("Benchmark product " + n);
+        d.setPrice(100 + (int) (n % 900));
+        d.setCurrency("USD");
+        d.setActive(Boolean.TRUE);
+        d.setWeightGrams(250);
+        return d;
+    }
+
+    private static SyncDtos.OrderDto order(long n, Long customerId, List<Long> productIds) {
+        SyncDtos.OrderDto d = new SyncDtos.OrderDto();
+        d.setOrderNumber("BENCH-" + n);
+        d.setCustomerId(customerId);
+        d.setStatus("paid");
+        d.setCurrency("USD");
+        List<SyncDtos.OrderItemDto> items = new ArrayList<>(3);
+        for (int i = 0; i < 3; i++) {
+            SyncDtos.OrderItemDto item = new SyncDtos.OrderItemDto();
+            item.setProductId(productIds.get((int) ((n + i) % productIds.size())));
+            item.setQty(1 + i);
+            item.setUnitPrice(250);
+            items.add(item);
+        }
+        d.setItems(items);
+        return d;
+    }
+
+    private static SyncDtos.EmployeeDto employee(long n) {
+        SyncDtos.EmployeeDto d = new SyncDtos.EmployeeDto();
+        d.setId(String.valueOf(1_000_000 + n));
+        d.setEmployeeId("EMP-" + n);
+        d.setFirstName("Bench");
+        d.setLastName("Employee" + n);
+        d.setEmail("bench.employee." + n + "@example.com");
+        d.setDepartment("Engineering");
+        d.setJobTitle("Engineer");
+        d.setEmployeeStatus("active");
+        d.setStartDate(Instant.parse("2020-01-01T00:00:00Z"));
+        return d;
+    }
+}
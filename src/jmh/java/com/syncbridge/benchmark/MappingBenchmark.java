@@ -0,0 +1,86 @@
+package com.syncbridge.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.syncbridge.dto.SyncDtos;
+import com.syncbridge.mapper.SyncMapper;
+
+/**
+ * CPU-only ingest steps, no database: binding a request body to the model DTOs, the legacy
+ * {@code convertValue} binding from generic maps, and {@link SyncMapper} DTO to entity mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"customers", "products", "orders", "employees"})
+    public String model;
+
+    @Param({"1", "100", "10000"})
+    public int batchSize;
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SyncMapper syncMapper = new SyncMapper();
+
+    private List<Object> dtos;
+    private List<Map<?, ?>> maps;
+    private Class<?> dtoClass;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws Exception {
+        dtos = BenchmarkData.dtos(model, batchSize, 0, 1L, List.of(1L, 2L, 3L));
+        dtoClass = dtos.get(0).getClass();
+        maps = new ArrayList<>(batchSize);
+        for (Object dto : dtos) {
+            maps.add(mapper.convertValue(dto, Map.class));
+        }
+        body = BenchmarkData.envelope(mapper, model, dtos);
+    }
+
+    @Benchmark
+    public Object bindRequest() throws Exception {
+        return mapper.readValue(body, SyncDtos.SyncRequest.class);
+    }
+
+    @Benchmark
+    public void convertValue(Blackhole bh) {
+        for (Map<?, ?> row : maps) {
+            bh.consume(mapper.convertValue(row, dtoClass));
+        }
+    }
+
+    @Benchmark
+    public void map(Blackhole bh) {
+        for (Object dto : dtos) {
+            bh.consume(switch (model) {
+                case "customers" -> syncMapper.mapCustomer((SyncDtos.CustomerDto) dto);
+                case "products" -> syncMapper.mapProduct((SyncDtos.ProductDto) dto);
+                case "orders" -> syncMapper.mapOrder((SyncDtos.OrderDto) dto);
+                default -> syncMapper.mapEmployee((SyncDtos.EmployeeDto) dto);
+            });
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.syncbridge.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.syncbridge.SpringSyncBridgeApplication;
+import com.syncbridge.entity.SyncMode;
+import com.syncbridge.service.SyncService;
+import com.syncbridge.service.SyncTimings;
+
+/**
+ * End-to-end {@link SyncService#sync} against the embedded H2 database: history, mapping, reference
+ * checks, batched inserts and the monitoring aspect. Every invocation writes fresh rows, so the
+ * tables grow over the run the way they would under a steady feed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class SyncServiceBenchmark {
+
+    @Param({"customers", "products", "orders", "employees"})
+    public String model;
+
+    @Param({"1", "100", "10000"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private SyncService syncService;
+    private Long customerId;
+    private List<Long> productIds;
+    private long seq;
+    private List<Object> batch;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        SpringApplication app = new SpringApplication(SpringSyncBridgeApplication.class);
+        app.setWebApplicationType(WebApplicationType.NONE);
+        context = app.run(
+                "--logging.level.com.syncbridge=WARN",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--app.sync.retry.enabled=false",
+                "--app.sync.retention.enabled=false");
+        syncService = context.getBean(SyncService.class);
+
+        // Orders need a customer and products to point at
+        customerId = ids(syncService.sync("customers",
+                BenchmarkData.dtos("customers", 1, -1, null, null), SyncMode.DEFAULT, new SyncTimings())).get(0);
+        productIds = ids(syncService.sync("products",
+                BenchmarkData.dtos("products", 10, -10, null, null), SyncMode.DEFAULT, new SyncTimings()));
+    }
+
+    @Setup(Level.Invocation)
+    public void nextBatch() {
+        batch = BenchmarkData.dtos(model, batchSize, seq, customerId, productIds);
+        seq += batchSize;
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> sync() {
+        return syncService.sync(model, batch, SyncMode.DEFAULT, new SyncTimings());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> ids(Map<String, Object> response) {
+        List<Long> ids = new ArrayList<>();
+        for (Map<String, Object> row : (List<Map<String, Object>>) response.get("results")) {
+            ids.add((Long) row.get("id"));
+        }
+        return ids;
+    }
+}
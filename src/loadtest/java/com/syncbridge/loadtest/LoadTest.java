@@ -0,0 +1,365 @@
+package com.syncbridge.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.syncbridge.loadtest.SyntheticData.Batch;
+
+/**
+ * Load generator for a running instance. Seeds customers, products and employees, then drives
+ * {@code POST /api/v1/sync?mode=upsert} and the GraphQL employee queries from {@code concurrency} workers
+ * with a weighted operation mix. Latencies go into one HdrHistogram per operation; the report prints
+ * throughput and percentiles and writes each histogram's percentile distribution (.hgrm) under
+ * {@code out}.
+ *
+ * With {@code rate} set the workers run open-loop on a fixed schedule and latency is measured from the
+ * scheduled send time, so a stalled server shows up in the percentiles instead of slowing the load down.
+ *
+ * Options are {@code --name=value}; see {@link #DEFAULTS}.
+ */
+public final class LoadTest {
+
+    static final Map<String, String> DEFAULTS = defaults();
+
+    private static final List<String> SYNC_MODELS = List.of("customers", "products", "orders", "employees");
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final String EMPLOYEE_QUERY = "query($id: Long!) { employee(id: $id) "
+            + "{ id employeeId fullName email department managerId } }";
+    private static final String EMPLOYEES_QUERY = "query($offset: Int, $limit: Int) { employees(offset: $offset, "
+            + "limit: $limit) { id fullName department jobTitle } }";
+    private static final String SEARCH_QUERY = "query($search: String!, $limit: Int) { searchEmployees(search: "
+            + "$search, limit: $limit) { id fullName email } }";
+    private static final String[] SEARCH_TERMS = {"Hopper", "Turing", "Ada", "Engineering", "Sales", "Linus",
+        "lov", "zz-no-match"};
+
+    private final Map<String, String> options;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ExecutorService httpExecutor;
+    private final HttpClient client;
+    private final SyntheticData data;
+    private final Map<String, OpStats> stats = new LinkedHashMap<>();
+    private final String[] mix;
+    private final int batchSize;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.batchSize = intOption("batch-size");
+        long runTag = System.currentTimeMillis() / 1000 % 100_000;
+        this.data = new SyntheticData(runTag, doubleOption("skew"), doubleOption("update-ratio"));
+        this.httpExecutor = Executors.newFixedThreadPool(Math.max(2, intOption("concurrency")));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpExecutor)
+                .build();
+        this.mix = parseMix(options.get("mix"));
+        for (String op : mix) {
+            stats.computeIfAbsent(op, o -> new OpStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name + "; known: " + DEFAULTS.keySet());
+            }
+            options.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        System.out.println("Load test options: " + options);
+        try {
+            seed();
+            drive();
+        } finally {
+            httpExecutor.shutdownNow();
+        }
+    }
+
+    private void drive() throws Exception {
+        int concurrency = intOption("concurrency");
+        long warmupNanos = TimeUnit.SECONDS.toNanos(intOption("warmup"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(intOption("duration"));
+        double rate = doubleOption("rate");
+        long intervalNanos = rate > 0 ? (long) (concurrency * 1e9 / rate) : 0;
+        long seed = Long.parseLong(options.get("random-seed"));
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            Random random = seed == 0 ? new Random() : new Random(seed + w);
+            // Stagger open-loop workers so their sends spread evenly across the interval
+            long firstSend = start + (intervalNanos * w) / concurrency;
+            workers.execute(() -> work(random, firstSend, intervalNanos, end));
+        }
+
+        LockSupport.parkNanos(Math.max(0, measureFrom - System.nanoTime()));
+        stats.values().forEach(OpStats::reset);
+        System.out.println("Warmup done, measuring for " + options.get("duration") + "s");
+
+        workers.shutdown();
+        workers.awaitTermination(durationNanos + TimeUnit.MINUTES.toNanos(10), TimeUnit.NANOSECONDS);
+        report((System.nanoTime() - measureFrom) / 1e9);
+    }
+
+    /**
+     * Creates the initial customers, products and employees that orders and queries refer to.
+     */
+    private void seed() throws IOException, InterruptedException {
+        Random random = new Random(1);
+        for (String model : List.of("customers", "products", "employees")) {
+            int remaining = intOption("seed-" + model);
+            while (remaining > 0) {
+                int size = Math.min(batchSize, remaining);
+                HttpResponse<String> response = sync(data.batch(model, size, random, 0));
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Seeding " + model + " failed with " + response.statusCode()
+                            + ": " + response.body());
+                }
+                remaining -= size;
+            }
+        }
+        System.out.printf("Seeded %d customers, %d products, %d employees%n", data.customers().size(),
+                data.products().size(), data.employees().size());
+    }
+
+    private void work(Random random, long firstSend, long intervalNanos, long end) {
+        long scheduled = firstSend;
+        while (true) {
+            if (intervalNanos > 0) {
+                LockSupport.parkNanos(scheduled - System.nanoTime());
+            } else {
+                scheduled = System.nanoTime();
+            }
+            if (scheduled >= end) {
+                return;
+            }
+            String op = mix[random.nextInt(mix.length)];
+            OpStats opStats = stats.get(op);
+            try {
+                Outcome outcome = execute(op, random);
+                opStats.record(scheduled, outcome.status(), outcome.rows());
+            } catch (IOException | RuntimeException e) {
+                opStats.record(scheduled, -1, 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            scheduled += intervalNanos;
+        }
+    }
+
+    private Outcome execute(String op, Random random) throws IOException, InterruptedException {
+        if (SYNC_MODELS.contains(op)) {
+            String model = data.canBuild(op) ? op : "customers";
+            HttpResponse<String> response = sync(data.batch(model, batchSize, random));
+            return new Outcome(response.statusCode(), batchSize);
+        }
+        Map<String, Object> variables = new LinkedHashMap<>();
+        String query;
+        int employees = data.employees().size();
+        if ("gql-employee".equals(op) && employees > 0) {
+            query = EMPLOYEE_QUERY;
+            variables.put("id", data.employees().pick(data, random));
+        } else if ("gql-search".equals(op)) {
+            query = SEARCH_QUERY;
+            variables.put("search", SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]);
+            variables.put("limit", 20);
+        } else {
+            query = EMPLOYEES_QUERY;
+            variables.put("offset", employees == 0 ? 0 : data.pick(employees, random) / 20 * 20);
+            variables.put("limit", 20);
+        }
+        HttpResponse<String> response = post("/graphql", Map.of("query", query, "variables", variables));
+        int status = response.statusCode();
+        if (status == 200 && mapper.readTree(response.body()).has("errors")) {
+            // GraphQL reports failures in the body; count them as server errors
+            status = 500;
+        }
+        return new Outcome(status, 0);
+    }
+
+    private HttpResponse<String> sync(Batch batch) throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/api/v1/sync?mode=upsert",
+                Map.of("model", batch.model(), "data", batch.rows()));
+        if (response.statusCode() == 200) {
+            JsonNode results = mapper.readTree(response.body()).path("data").path("results");
+            List<Map<String, Object>> rows = new ArrayList<>(results.size());
+            for (JsonNode result : results) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("status", result.path("status").asText());
+                row.put("id", result.path("id").asLong());
+                rows.add(row);
+            }
+            data.confirm(batch, rows);
+        }
+        return response;
+    }
+
+    private HttpResponse<String> post(String path, Object body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.get("url") + path))
+                .timeout(Duration.ofMinutes(2))
+                .header("Content-Type", "application/json")
+                .header("X-Auth-Token", options.get("token"))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void report(double seconds) throws IOException {
+        Path out = Paths.get(options.get("out"));
+        Files.createDirectories(out);
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        System.out.printf("%n%-14s %9s %9s %10s %7s %7s %9s %9s %9s %9s %9s%n", "operation", "requests", "req/s",
+                "rows/s", "4xx", "5xx/err", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, OpStats> entry : stats.entrySet()) {
+            OpStats opStats = entry.getValue();
+            Histogram histogram = opStats.recorder.getIntervalHistogram();
+            all.add(histogram);
+            printRow(entry.getKey(), histogram, opStats.rows.sum() / seconds, opStats.clientErrors.sum(),
+                    opStats.serverErrors.sum(), seconds);
+            writeDistribution(out.resolve(entry.getKey() + ".hgrm"), histogram);
+        }
+        printRow("all", all, stats.values().stream().mapToLong(s -> s.rows.sum()).sum() / seconds,
+                stats.values().stream().mapToLong(s -> s.clientErrors.sum()).sum(),
+                stats.values().stream().mapToLong(s -> s.serverErrors.sum()).sum(), seconds);
+        writeDistribution(out.resolve("all.hgrm"), all);
+        System.out.println("\nPercentile distributions written to " + out.toAbsolutePath());
+    }
+
+    private static void printRow(String op, Histogram h, double rowsPerSecond, long clientErrors, long serverErrors,
+                                 double seconds) {
+        System.out.printf("%-14s %9d %9.1f %10.1f %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", op, h.getTotalCount(),
+                h.getTotalCount() / seconds, rowsPerSecond, clientErrors, serverErrors,
+                millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue()));
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream stream = new PrintStream(Files.newOutputStream(file))) {
+            // Recorded in microseconds, written in milliseconds
+            histogram.outputPercentileDistribution(stream, 1000.0);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Expands "customers=2,orders=4,gql-search=1" into a pick table where each op appears by its weight.
+     */
+    private static String[] parseMix(String spec) {
+        List<String> table = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            String op = pair[0];
+            if (!SYNC_MODELS.contains(op) && !op.startsWith("gql-")) {
+                throw new IllegalArgumentException("Unknown operation in mix: " + op);
+            }
+            int weight = pair.length > 1 ? Integer.parseInt(pair[1]) : 1;
+            for (int i = 0; i < weight; i++) {
+                table.add(op);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("mix selects no operations");
+        }
+        return table.toArray(String[]::new);
+    }
+
+    private int intOption(String name) {
+        return Integer.parseInt(options.get(name));
+    }
+
+    private double doubleOption(String name) {
+        return Double.parseDouble(options.get(name));
+    }
+
+    private static Map<String, String> defaults() {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("url", "http://localhost:3000");
+        defaults.put("token", "your-secret-auth-key");
+        defaults.put("concurrency", "8");
+        defaults.put("warmup", "10");
+        defaults.put("duration", "60");
+        // total requests per second across workers; 0 runs closed-loop as fast as responses allow
+        defaults.put("rate", "0");
+        defaults.put("batch-size", "100");
+        defaults.put("mix", "customers=2,products=1,orders=4,employees=1,gql-employee=2,gql-employees=1,"
+                + "gql-search=1");
+        defaults.put("skew", "2.0");
+        defaults.put("update-ratio", "0.2");
+        defaults.put("seed-customers", "500");
+        defaults.put("seed-products", "200");
+        defaults.put("seed-employees", "200");
+        // 0 picks a fresh seed per run
+        defaults.put("random-seed", "0");
+        defaults.put("out", "target/loadtest");
+        return defaults;
+    }
+
+    private record Outcome(int status, int rows) {
+    }
+
+    private static final class OpStats {
+        private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+
+        /**
+         * Records the latency from {@code scheduledNanos} to now; a negative status is a transport failure.
+         */
+        void record(long scheduledNanos, int status, int rowCount) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledNanos);
+            recorder.recordValue(Math.min(Math.max(micros, 0), MAX_LATENCY_MICROS));
+            if (status >= 200 && status < 300) {
+                rows.add(rowCount);
+            } else if (status >= 400 && status < 500) {
+                clientErrors.increment();
+            } else {
+                serverErrors.increment();
+            }
+        }
+
+        void reset() {
+            recorder.getIntervalHistogram();
+            rows.reset();
+            clientErrors.reset();
+            serverErrors.reset();
+        }
+    }
+}
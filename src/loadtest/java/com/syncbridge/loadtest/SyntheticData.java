@@ -0,0 +1,222 @@
+package com.syncbridge.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthetic sync payloads with referential integrity. Orders only reference customers and products the
+ * server has confirmed, and employees report to managers generated earlier in the run. Every natural key carries
+ * a per-run tag, so repeated runs against the same instance do not collide.
+ *
+ * Row picks for updates and references are skewed: an index into a pool of n keys is
+ * {@code n * u^skew} for uniform u, so skew 1 is uniform and larger values concentrate traffic on the
+ * oldest keys (skew 3 sends about half of all picks to the first 10%).
+ */
+final class SyntheticData {
+
+    private static final String[] FIRST_NAMES = {"Ada", "Grace", "Alan", "Linus", "Barbara", "Ken", "Margaret",
+        "Dennis", "Frances", "Edsger", "Radia", "John", "Hedy", "Niklaus", "Sophie", "Tim"};
+    private static final String[] LAST_NAMES = {"Lovelace", "Hopper", "Turing", "Torvalds", "Liskov", "Thompson",
+        "Hamilton", "Ritchie", "Allen", "Dijkstra", "Perlman", "Backus", "Lamarr", "Wirth", "Wilson", "Berners"};
+    private static final String[] CURRENCIES = {"USD", "USD", "USD", "EUR", "EUR", "GBP"};
+    private static final String[] ORDER_STATUSES = {"paid", "paid", "paid", "shipped", "shipped", "completed",
+        "pending", "cancelled", "refunded"};
+    private static final String[] DEPARTMENTS = {"Engineering", "Engineering", "Sales", "Support", "Finance",
+        "Marketing", "Operations"};
+    private static final String[] JOB_LEVELS = {"L1", "L2", "L2", "L3", "L3", "L4", "L5"};
+    private static final String[] LOCATIONS = {"Kigali", "Nairobi", "Lagos", "Berlin", "Austin", "Singapore"};
+    private static final int MANAGER_FANOUT = 6;
+
+    private final String tag;
+    private final long employeeIdBase;
+    private final double skew;
+    private final double updateRatio;
+
+    private final KeyPool customers = new KeyPool();
+    private final KeyPool products = new KeyPool();
+    private final KeyPool employees = new KeyPool();
+    private final Map<String, AtomicLong> sequences = new LinkedHashMap<>();
+    private final Map<String, KeyPool> written = new LinkedHashMap<>();
+
+    SyntheticData(long runTag, double skew, double updateRatio) {
+        this.tag = "lt" + runTag;
+        this.employeeIdBase = runTag * 10_000_000L;
+        this.skew = skew;
+        this.updateRatio = updateRatio;
+        for (String model : List.of("customers", "products", "orders", "employees")) {
+            sequences.put(model, new AtomicLong());
+            written.put(model, new KeyPool());
+        }
+    }
+
+    KeyPool customers() {
+        return customers;
+    }
+
+    KeyPool products() {
+        return products;
+    }
+
+    KeyPool employees() {
+        return employees;
+    }
+
+    /**
+     * A batch for {@code model}. With probability {@code updateRatio} a row re-sends a key the server
+     * has already written, with changed content, so upsert traffic hits a mix of creates and updates.
+     */
+    Batch batch(String model, int size, Random random) {
+        return batch(model, size, random, updateRatio);
+    }
+
+    Batch batch(String model, int size, Random random, double updateRatio) {
+        AtomicLong sequence = sequences.get(model);
+        KeyPool existing = written.get(model);
+        List<Map<String, Object>> rows = new ArrayList<>(size);
+        long[] seqs = new long[size];
+        for (int i = 0; i < size; i++) {
+            boolean update = existing.size() > 0 && random.nextDouble() < updateRatio;
+            long n = update ? existing.pick(this, random) : sequence.getAndIncrement();
+            seqs[i] = n;
+            rows.add(switch (model) {
+                case "customers" -> customer(n, random);
+                case "products" -> product(n, random);
+                case "orders" -> order(n, random);
+                case "employees" -> employee(n, random);
+                default -> throw new IllegalArgumentException("Unknown model: " + model);
+            });
+        }
+        return new Batch(model, rows, seqs);
+    }
+
+    /**
+     * Registers the rows the server reported as created, using the per-row {@code results} of the sync
+     * response (same order as the batch), so later batches can update and reference them.
+     */
+    void confirm(Batch batch, List<Map<String, Object>> results) {
+        KeyPool existing = written.get(batch.model());
+        for (int i = 0; i < results.size() && i < batch.seqs().length; i++) {
+            Map<String, Object> result = results.get(i);
+            if (!"created".equals(result.get("status"))) {
+                continue;
+            }
+            existing.add(batch.seqs()[i]);
+            switch (batch.model()) {
+                case "customers" -> customers.add(((Number) result.get("id")).longValue());
+                case "products" -> products.add(((Number) result.get("id")).longValue());
+                case "employees" -> employees.add(employeeId(batch.seqs()[i]));
+                default -> { }
+            }
+        }
+    }
+
+    boolean canBuild(String model) {
+        return !"orders".equals(model) || (customers.size() > 0 && products.size() > 0);
+    }
+
+    long employeeId(long seq) {
+        return employeeIdBase + seq;
+    }
+
+    int pick(int size, Random random) {
+        return Math.min(size - 1, (int) (size * Math.pow(random.nextDouble(), skew)));
+    }
+
+    private Map<String, Object> customer(long n, Random random) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("email", tag + ".customer." + n + "@example.com");
+        row.put("first_name", pickOne(FIRST_NAMES, random));
+        row.put("last_name", pickOne(LAST_NAMES, random));
+        row.put("default_currency", pickOne(CURRENCIES, random));
+        return row;
+    }
+
+    private Map<String, Object> product(long n, Random random) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("name", tag + "-product-" + n);
+        row.put("description", "Synthetic product " + n);
+        // Roughly log-normal prices, most of them in the low hundreds
+        row.put("price", (int) Math.round(Math.exp(5 + random.nextGaussian() * 1.2)) + 100);
+        row.put("currency", pickOne(CURRENCIES, random));
+        row.put("active", random.nextInt(10) > 0);
+        row.put("weight_grams", 50 + random.nextInt(5_000));
+        return row;
+    }
+
+    private Map<String, Object> order(long n, Random random) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("order_number", tag.toUpperCase() + "-" + n);
+        row.put("customer_id", customers.pick(this, random));
+        row.put("status", pickOne(ORDER_STATUSES, random));
+        row.put("currency", pickOne(CURRENCIES, random));
+        int itemCount = 1 + (int) Math.min(9, Math.abs(random.nextGaussian() * 2.5));
+        List<Map<String, Object>> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("product_id", products.pick(this, random));
+            item.put("qty", 1 + random.nextInt(random.nextInt(10) == 0 ? 20 : 3));
+            item.put("unit_price", 100 + random.nextInt(20_000));
+            items.add(item);
+        }
+        row.put("items", items);
+        return row;
+    }
+
+    private Map<String, Object> employee(long n, Random random) {
+        long id = employeeId(n);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", String.valueOf(id));
+        row.put("employeeId", tag.toUpperCase() + "-E" + n);
+        row.put("firstName", pickOne(FIRST_NAMES, random));
+        row.put("lastName", pickOne(LAST_NAMES, random));
+        row.put("email", tag + ".employee." + n + "@example.com");
+        row.put("department", pickOne(DEPARTMENTS, random));
+        row.put("jobLevel", pickOne(JOB_LEVELS, random));
+        row.put("location", pickOne(LOCATIONS, random));
+        row.put("jobTitle", "Engineer " + pickOne(JOB_LEVELS, random));
+        row.put("employeeStatus", random.nextInt(20) == 0 ? "terminated" : "active");
+        row.put("startDate", "20" + (10 + random.nextInt(15)) + "-0" + (1 + random.nextInt(9)) + "-01T00:00:00Z");
+        if (n > 0) {
+            // A tree with MANAGER_FANOUT reports per manager; managers always have a lower sequence
+            long manager = (n - 1) / MANAGER_FANOUT;
+            row.put("managerId", String.valueOf(employeeId(manager)));
+            row.put("managerEmail", tag + ".employee." + manager + "@example.com");
+        }
+        return row;
+    }
+
+    private static String pickOne(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    record Batch(String model, List<Map<String, Object>> rows, long[] seqs) {
+    }
+
+    /**
+     * Ids confirmed by the server, in creation order. Picks are skewed towards the oldest ids.
+     */
+    static final class KeyPool {
+        private long[] ids = new long[1024];
+        private int size;
+
+        synchronized void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long pick(SyntheticData data, Random random) {
+            return ids[data.pick(size, random)];
+        }
+    }
+}
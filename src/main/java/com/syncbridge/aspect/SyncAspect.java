@@ -1,8 +1,12 @@
 package com.syncbridge.aspect;
 
-import java.util.HashMap;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -12,6 +16,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.stereotype.Component;
 
 import com.syncbridge.annotation.Monitored;
@@ -24,131 +29,175 @@ import io.micrometer.core.instrument.Timer;
 /**
  * Generic instrumentation aspect for any method marked with @Monitored.
  * Automatically captures latency, error rates, and structured logs.
- * 
+ *
  * Example:
  * @Monitored(name = "sync_op", tags = {"model"})
  * public void sync(String model, List<Map> data) { ... }
- * 
+ *
  * Generates metrics:
  * - sync_op.duration (latency with percentiles)
  * - sync_op.total (throughput counter with status tag)
  * - sync_op.errors (error counter with exception type)
+ *
+ * Tag parameter positions are resolved once per method and meters are registered once per
+ * (method, tag values), so a call only costs two map lookups and a clock read.
  */
 @Aspect
 @Component
 public class SyncAspect {
 
     private static final Logger logger = LoggerFactory.getLogger(SyncAspect.class);
+    private static final String REQUEST_ID = "requestId";
 
     @Autowired
     private MeterRegistry meterRegistry;
 
-    @Around("@annotation(monitored)")
-    public Object monitoredMethodMetrics(ProceedingJoinPoint joinPoint, Monitored monitored) throws Throwable {
-        String requestId = UUID.randomUUID().toString();
-        MDC.put("requestId", requestId);
+    private final Map<Method, Probe> probes = new ConcurrentHashMap<>();
 
-        // Extract method name and metric name
-        String metricName = monitored.name();
-        String methodName = joinPoint.getSignature().getName();
-
-        // Extract tags from method parameters (defensive: parameter names may be unavailable)
-        Map<String, String> tagMap = extractTags(joinPoint, monitored.tags());
-        Tags tags = tagMap.isEmpty() ? Tags.empty() : Tags.of(convertMapToArray(tagMap));
+    // Not bound as an advice argument: AspectJ would re-resolve the annotation reflectively on every call
+    @Around("@annotation(com.syncbridge.annotation.Monitored)")
+    public Object monitoredMethodMetrics(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Keep the caller's requestId so nested @Monitored calls log under the same id
+        boolean ownsRequestId = MDC.get(REQUEST_ID) == null;
+        if (ownsRequestId) {
+            MDC.put(REQUEST_ID, Long.toHexString(ThreadLocalRandom.current().nextLong()));
+        }
 
-        Timer.Sample sample = Timer.start(meterRegistry);
+        MethodSignature sig = (MethodSignature) joinPoint.getSignature();
+        Probe probe = probes.computeIfAbsent(sig.getMethod(),
+                m -> new Probe(AnnotationUtils.findAnnotation(m, Monitored.class), sig.getParameterNames()));
+        Meters meters = probe.meters(joinPoint.getArgs());
 
+        long start = System.nanoTime();
         try {
-            logger.info("Operation started: method={}, metricName={}, tags={}", methodName, metricName, tagMap);
+            if (logger.isInfoEnabled()) {
+                logger.info("Operation started: method={}, metricName={}, tags={}", sig.getName(), probe.metricName,
+                        meters.tags);
+            }
             Object result = joinPoint.proceed();
 
-            // Record latency
-            Timer successTimer = Timer.builder(metricName + ".duration")
-                    .tags(tags.and("status", "success"))
-                    .publishPercentiles(0.5, 0.95, 0.99)
-                    .register(meterRegistry);
-            sample.stop(successTimer);
-
-            // Record throughput counter
-            Counter.builder(metricName + ".total")
-                    .tags(tags.and("status", "success"))
-                    .register(meterRegistry)
-                    .increment();
+            meters.successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            meters.successTotal.increment();
 
-            logger.info("Operation completed successfully: method={}, tags={}", methodName, tagMap);
+            if (logger.isInfoEnabled()) {
+                logger.info("Operation completed successfully: method={}, tags={}", sig.getName(), meters.tags);
+            }
 
             return result;
         } catch (Exception ex) {
-            // Record latency with error
-            Timer errorTimer = Timer.builder(metricName + ".duration")
-                    .tags(tags.and("status", "error").and("exception", ex.getClass().getSimpleName()))
-                    .publishPercentiles(0.5, 0.95, 0.99)
-                    .register(meterRegistry);
-            sample.stop(errorTimer);
-
-            // Record error counters
-            Counter.builder(metricName + ".total")
-                    .tags(tags.and("status", "error"))
-                    .register(meterRegistry)
-                    .increment();
-
-            Counter.builder(metricName + ".errors")
-                    .tags(tags.and("exception", ex.getClass().getSimpleName()))
-                    .register(meterRegistry)
-                    .increment();
+            ErrorMeters errorMeters = meters.errors(ex.getClass());
+            errorMeters.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            meters.errorTotal.increment();
+            errorMeters.counter.increment();
 
-            logger.error("Operation failed: method={}, tags={}, error={}", methodName, tagMap, ex.getMessage(), ex);
+            logger.error("Operation failed: method={}, tags={}, error={}", sig.getName(), meters.tags,
+                    ex.getMessage(), ex);
             throw ex;
         } finally {
-            MDC.clear();
+            if (ownsRequestId) {
+                MDC.remove(REQUEST_ID);
+            }
         }
     }
 
     /**
-     * Extract parameter values as metric tags.
-     * E.g., tags = {"model"}, finds the parameter named "model" and extracts its value.
+     * Per-method state: the metric name, the argument positions of the tagged parameters and the
+     * meters registered so far, keyed by tag values (the value itself for a single tag).
      */
-    private Map<String, String> extractTags(ProceedingJoinPoint joinPoint, String[] tagNames) {
-        Map<String, String> result = new HashMap<>();
-
-        if (tagNames == null || tagNames.length == 0) {
-            return result;
+    private final class Probe {
+        private final String metricName;
+        private final String[] tagNames;
+        private final int[] tagIndexes;
+        private final Meters untagged;
+        private final Map<Object, Meters> tagged = new ConcurrentHashMap<>();
+
+        private Probe(Monitored monitored, String[] paramNames) {
+            this.metricName = monitored.name();
+            this.tagNames = resolvableTags(monitored.tags(), paramNames);
+            this.tagIndexes = new int[tagNames.length];
+            for (int t = 0; t < tagNames.length; t++) {
+                tagIndexes[t] = Arrays.asList(paramNames).indexOf(tagNames[t]);
+            }
+            this.untagged = tagNames.length == 0 ? new Meters(metricName, Tags.empty()) : null;
         }
 
-        MethodSignature sig = (MethodSignature) joinPoint.getSignature();
-        String[] paramNames = sig.getParameterNames();
-        Object[] paramValues = joinPoint.getArgs();
+        private Meters meters(Object[] args) {
+            if (untagged != null) {
+                return untagged;
+            }
+            if (tagIndexes.length == 1) {
+                return tagged.computeIfAbsent(tagValue(args[tagIndexes[0]]), this::register);
+            }
+            String[] values = new String[tagIndexes.length];
+            for (int t = 0; t < tagIndexes.length; t++) {
+                values[t] = tagValue(args[tagIndexes[t]]);
+            }
+            return tagged.computeIfAbsent(Arrays.asList(values), this::register);
+        }
 
-        if (paramNames == null || paramNames.length == 0) {
-            // Parameter names unavailable at runtime (compiled without -parameters), skip extraction
-            return result;
+        private Meters register(Object key) {
+            String[] keyValues = new String[tagNames.length * 2];
+            for (int t = 0; t < tagNames.length; t++) {
+                keyValues[t * 2] = tagNames[t];
+                keyValues[t * 2 + 1] = key instanceof List<?> values ? (String) values.get(t) : (String) key;
+            }
+            return new Meters(metricName, Tags.of(keyValues));
         }
 
-        for (String tagName : tagNames) {
-            for (int i = 0; i < paramNames.length; i++) {
-                if (tagName.equals(paramNames[i]) && i < paramValues.length) {
-                    Object val = paramValues[i];
-                    result.put(tagName, val == null ? "null" : String.valueOf(val));
-                    break;
-                }
+        /**
+         * Tag names that match a parameter. Parameter names may be unavailable at runtime (compiled
+         * without -parameters), in which case the method is measured untagged.
+         */
+        private static String[] resolvableTags(String[] tagNames, String[] paramNames) {
+            if (tagNames == null || paramNames == null || paramNames.length == 0) {
+                return new String[0];
             }
+            return Arrays.stream(tagNames).filter(Arrays.asList(paramNames)::contains).toArray(String[]::new);
         }
 
-        return result;
+        private static String tagValue(Object value) {
+            return value == null ? "null" : String.valueOf(value);
+        }
     }
 
     /**
-     * Convert Map<String, String> to String[] for Tags.
-     * Expected format: ["key1", "value1", "key2", "value2", ...]
+     * Meters for one (method, tag values) pair. Error meters are added per exception type.
      */
-    private String[] convertMapToArray(Map<String, String> map) {
-        String[] result = new String[map.size() * 2];
-        int idx = 0;
-        for (Map.Entry<String, String> entry : map.entrySet()) {
-            result[idx++] = entry.getKey();
-            result[idx++] = entry.getValue();
+    private final class Meters {
+        private final String metricName;
+        private final Tags tags;
+        private final Timer successTimer;
+        private final Counter successTotal;
+        private final Counter errorTotal;
+        private final Map<Class<?>, ErrorMeters> errors = new ConcurrentHashMap<>();
+
+        private Meters(String metricName, Tags tags) {
+            this.metricName = metricName;
+            this.tags = tags;
+            this.successTimer = Timer.builder(metricName + ".duration")
+                    .tags(tags.and("status", "success"))
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.successTotal = Counter.builder(metricName + ".total")
+                    .tags(tags.and("status", "success"))
+                    .register(meterRegistry);
+            this.errorTotal = Counter.builder(metricName + ".total")
+                    .tags(tags.and("status", "error"))
+                    .register(meterRegistry);
+        }
+
+        private ErrorMeters errors(Class<?> type) {
+            return errors.computeIfAbsent(type, t -> new ErrorMeters(
+                    Timer.builder(metricName + ".duration")
+                            .tags(tags.and("status", "error").and("exception", t.getSimpleName()))
+                            .publishPercentiles(0.5, 0.95, 0.99)
+                            .register(meterRegistry),
+                    Counter.builder(metricName + ".errors")
+                            .tags(tags.and("exception", t.getSimpleName()))
+                            .register(meterRegistry)));
         }
-        return result;
     }
-}
 
+    private record ErrorMeters(Timer timer, Counter counter) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.syncbridge.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * Spring Boot only auto-configures its general-purpose executor when no other executor bean exists, so the
+     * pools below would leave MVC async requests and {@code @Async} without one. Declared here as Boot does,
+     * from {@code spring.task.execution.*}.
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Bounded pool for asynchronous sync jobs, sized independently of the web thread pool.
+     * Submissions beyond the queue capacity are rejected rather than buffered.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor syncJobExecutor(@Value("${app.sync.async.pool-size:2}") int poolSize,
+                                                  @Value("${app.sync.async.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sync-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Workers for partitioned parallel ingest ({@code POST /api/v1/sync?parallel=true}). Each partition
+     * holds its own connection, so keep the pool below the datasource's maximum pool size.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor syncPartitionExecutor(@Value("${app.sync.parallel.pool-size:4}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("sync-partition-");
+        return executor;
+    }
+
+    /**
+     * Pool that replays PENDING_RETRY sync history; its size is the retry parallelism.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor syncRetryExecutor(@Value("${app.sync.retry.parallelism:2}") int parallelism,
+                                                    @Value("${app.sync.retry.batch-size:10}") int batchSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(batchSize);
+        executor.setThreadNamePrefix("sync-retry-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
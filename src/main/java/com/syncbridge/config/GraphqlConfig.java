@@ -1,9 +1,26 @@
 package com.syncbridge.config;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.graphql.data.pagination.CursorEncoder;
+import org.springframework.graphql.data.pagination.CursorStrategy;
+import org.springframework.graphql.data.pagination.EncodingCursorStrategy;
+import org.springframework.graphql.data.query.ScrollPositionCursorStrategy;
+import org.springframework.graphql.execution.DataFetcherExceptionResolver;
+import org.springframework.graphql.execution.ErrorType;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+import org.springframework.graphql.execution.SubscriptionExceptionResolver;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import graphql.GraphqlErrorBuilder;
 import graphql.scalars.ExtendedScalars;
 
 @Configuration
@@ -15,5 +32,57 @@ public class GraphqlConfig {
                 .scalar(ExtendedScalars.DateTime)
                 .scalar(ExtendedScalars.GraphQLLong);
     }
-}
 
+    /**
+     * Malformed arguments, such as a cursor that does not decode or an unknown model to subscribe to, are
+     * reported as the client's error.
+     */
+    @Bean
+    public DataFetcherExceptionResolver illegalArgumentExceptionResolver() {
+        return DataFetcherExceptionResolver.forSingleError((ex, env) -> ex instanceof IllegalArgumentException
+                ? GraphqlErrorBuilder.newError(env).errorType(ErrorType.BAD_REQUEST).message(ex.getMessage()).build()
+                : null);
+    }
+
+    @Bean
+    public SubscriptionExceptionResolver subscriptionIllegalArgumentExceptionResolver() {
+        return SubscriptionExceptionResolver.forSingleError(ex -> ex instanceof IllegalArgumentException
+                ? GraphqlErrorBuilder.newError().errorType(ErrorType.BAD_REQUEST).message(ex.getMessage()).build()
+                : null);
+    }
+
+    /**
+     * Cursors for the connection queries. Boot's default writes keyset keys as polymorphic JSON whose reader
+     * rejects {@code Long} values, so a cursor holding an employee id could not be read back. Keys are written
+     * as plain JSON instead and whole numbers read back as {@code Long}, which covers the id and score keys.
+     */
+    @Bean
+    public EncodingCursorStrategy<ScrollPosition> cursorStrategy() {
+        ObjectMapper mapper = new ObjectMapper().enable(DeserializationFeature.USE_LONG_FOR_INTS);
+        CursorStrategy<Map<String, Object>> keyset = new CursorStrategy<>() {
+            @Override
+            public boolean supports(Class<?> targetType) {
+                return Map.class.isAssignableFrom(targetType);
+            }
+
+            @Override
+            public String toCursor(Map<String, Object> keys) {
+                try {
+                    return mapper.writeValueAsString(keys);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Failed to write cursor keys: " + keys, e);
+                }
+            }
+
+            @Override
+            public Map<String, Object> fromCursor(String cursor) {
+                try {
+                    return mapper.readValue(cursor, new TypeReference<LinkedHashMap<String, Object>>() { });
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Failed to parse cursor: " + cursor, e);
+                }
+            }
+        };
+        return CursorStrategy.withEncoder(new ScrollPositionCursorStrategy(keyset), CursorEncoder.base64());
+    }
+}
@@ -1,29 +1,54 @@
 package com.syncbridge.controller;
 
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.stereotype.Controller;
 
 import com.syncbridge.entity.Employee;
 import com.syncbridge.repository.EmployeeRepository;
+import com.syncbridge.service.ChangeBus;
+import com.syncbridge.service.EmployeeReadCache;
+import com.syncbridge.service.EmployeeSearchService;
+import com.syncbridge.service.EntityChangedEvent;
 
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
 
 @Controller
 public class EmployeeGraphqlController {
+    private static final int MAX_FIRST = 100;
 
     private final EmployeeRepository employeeRepository;
-    private final Sinks.Many<Employee> employeeCreatedSink = Sinks.many().multicast().onBackpressureBuffer();
+    private final EmployeeSearchService employeeSearchService;
+    private final EmployeeReadCache employeeReadCache;
+    private final ChangeBus changeBus;
 
-    public EmployeeGraphqlController(EmployeeRepository employeeRepository) {
+    public EmployeeGraphqlController(EmployeeRepository employeeRepository,
+                                     EmployeeSearchService employeeSearchService,
+                                     EmployeeReadCache employeeReadCache,
+                                     ChangeBus changeBus) {
         this.employeeRepository = employeeRepository;
+        this.employeeSearchService = employeeSearchService;
+        this.employeeReadCache = employeeReadCache;
+        this.changeBus = changeBus;
     }
 
     @QueryMapping
@@ -33,28 +58,41 @@ public class EmployeeGraphqlController {
 
     @QueryMapping
     public List<Employee> employees(@Argument int offset, @Argument int limit) {
-        PageRequest pageRequest = toPageRequest(offset, limit);
-        return employeeRepository.findAll(pageRequest).getContent();
+        return employeeReadCache.findPage(Math.max(offset, 0), limit > 0 ? limit : 10);
+    }
+
+    /**
+     * Relay connection over all employees in id order. The cursor is the last id seen, so every page is an
+     * index seek on the primary key however deep it is, and no count query runs. Pages bypass the read cache,
+     * since a full walk of the table would only evict the entries worth keeping. {@code first} above
+     * {@value #MAX_FIRST} fails with BAD_REQUEST, as for the search connection.
+     */
+    @QueryMapping
+    public Window<Employee> employeesConnection(ScrollSubrange subrange) {
+        return employeeRepository.findAllBy(keyset(subrange), Sort.by("id"), Limit.of(first(subrange)));
+    }
+
+    @QueryMapping
+    public Window<Employee> searchEmployeesConnection(@Argument String search, ScrollSubrange subrange) {
+        return employeeSearchService.scroll(search, keyset(subrange), first(subrange));
     }
 
     @QueryMapping
     public Employee employee(@Argument Long id) {
-        return employeeRepository.findById(id).orElse(null);
+        return employeeReadCache.findById(id);
     }
 
     @QueryMapping
     public List<Employee> searchEmployees(@Argument String search, @Argument int offset, @Argument int limit) {
-        PageRequest pageRequest = toPageRequest(offset, limit);
-        return employeeRepository.searchEmployees(search, pageRequest).getContent();
+        return employeeSearchService.search(search, offset, limit);
     }
 
     @MutationMapping
     public Employee createEmployee(@Argument CreateEmployeeInput data) {
         Employee employee = new Employee();
         applyCreateInput(employee, data);
-        Employee saved = employeeRepository.save(employee);
-        employeeCreatedSink.tryEmitNext(saved);
-        return saved;
+        employee.refreshContentHash();
+        return employeeRepository.save(employee);
     }
 
     @MutationMapping
@@ -62,6 +100,7 @@ public class EmployeeGraphqlController {
         return employeeRepository.findById(id)
                 .map(existing -> {
                     applyUpdateInput(existing, data);
+                    existing.refreshContentHash();
                     return employeeRepository.save(existing);
                 })
                 .orElse(null);
@@ -76,9 +115,38 @@ public class EmployeeGraphqlController {
         return true;
     }
 
+    /**
+     * Employees created through any write path, delivered through the change bus like {@link #changes}.
+     */
     @SubscriptionMapping
     public Flux<Employee> employeeCreated() {
-        return employeeCreatedSink.asFlux();
+        ChangeBus.Filter filter = new ChangeBus.Filter(List.of("employees"), List.of(EntityChangedEvent.Type.CREATED),
+                null, null);
+        return changeBus.subscribe(filter, null).mapNotNull(event -> employeeReadCache.findById(event.id()));
+    }
+
+    @SubscriptionMapping
+    public Flux<EntityChangedEvent> changes(@Argument List<String> models,
+                                            @Argument List<EntityChangedEvent.Type> types,
+                                            @Argument String department, @Argument String company,
+                                            @Argument ChangeBus.Overflow overflow) {
+        return changeBus.subscribe(new ChangeBus.Filter(models, types, department, company), overflow);
+    }
+
+    @SchemaMapping(typeName = "Change", field = "committedAt")
+    public OffsetDateTime committedAt(EntityChangedEvent event) {
+        return event.committedAt().atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * The employee as it is when the change is delivered; null for other models and deletions.
+     */
+    @SchemaMapping(typeName = "Change", field = "employee")
+    public Employee changedEmployee(EntityChangedEvent event) {
+        if (!"employees".equals(event.model()) || event.type() == EntityChangedEvent.Type.DELETED) {
+            return null;
+        }
+        return employeeReadCache.findById(event.id());
     }
 
     @SchemaMapping(typeName = "Employee", field = "fullName")
@@ -102,11 +170,99 @@ public class EmployeeGraphqlController {
         return builder.toString();
     }
 
-    private PageRequest toPageRequest(int offset, int limit) {
-        int safeLimit = limit > 0 ? limit : 10;
-        int safeOffset = Math.max(offset, 0);
-        int page = safeOffset / safeLimit;
-        return PageRequest.of(page, safeLimit);
+    /**
+     * Managers of every employee at one level of the query, in at most two queries: managerId references
+     * go through the read cache, which loads its misses with one IN query, and employees that only carry a
+     * managerEmail are resolved with one email lookup.
+     */
+    @BatchMapping(typeName = "Employee", field = "manager")
+    public Map<Employee, Employee> manager(List<Employee> employees) {
+        Set<Long> managerIds = new LinkedHashSet<>();
+        Set<String> managerEmails = new LinkedHashSet<>();
+        for (Employee employee : employees) {
+            Long managerId = parseId(employee.getManagerId());
+            if (managerId != null) {
+                managerIds.add(managerId);
+            } else if (employee.getManagerEmail() != null) {
+                managerEmails.add(employee.getManagerEmail());
+            }
+        }
+
+        Map<Long, Employee> byId = new HashMap<>();
+        for (Employee manager : employeeReadCache.findAllById(new ArrayList<>(managerIds))) {
+            byId.put(manager.getId(), manager);
+        }
+        Map<String, Employee> byEmail = new HashMap<>();
+        if (!managerEmails.isEmpty()) {
+            for (Employee manager : employeeRepository.findByEmailIn(managerEmails)) {
+                byEmail.put(manager.getEmail(), manager);
+            }
+        }
+
+        Map<Employee, Employee> managers = new HashMap<>();
+        for (Employee employee : employees) {
+            Long managerId = parseId(employee.getManagerId());
+            Employee manager = managerId != null ? byId.get(managerId) : byEmail.get(employee.getManagerEmail());
+            if (manager != null) {
+                managers.put(employee, manager);
+            }
+        }
+        return managers;
+    }
+
+    /**
+     * Direct reports of every employee at one level of the query, with a single query on the indexed
+     * manager_id and manager_email columns. Reports are grouped by manager id, since the same row can appear
+     * in a batch as several instances (e.g. one from the read cache and one from an email lookup).
+     */
+    @BatchMapping(typeName = "Employee", field = "directReports")
+    public Map<Employee, List<Employee>> directReports(List<Employee> employees) {
+        Map<String, Long> byId = new HashMap<>();
+        Map<String, Long> byEmail = new HashMap<>();
+        for (Employee employee : employees) {
+            byId.put(String.valueOf(employee.getId()), employee.getId());
+            byEmail.put(employee.getEmail(), employee.getId());
+        }
+        Map<Long, List<Employee>> byManager = new HashMap<>();
+        for (Employee report : employeeRepository.findReports(byId.keySet(), byEmail.keySet())) {
+            Long managerId = report.getManagerId() != null
+                    ? byId.get(report.getManagerId()) : byEmail.get(report.getManagerEmail());
+            if (managerId != null) {
+                byManager.computeIfAbsent(managerId, id -> new ArrayList<>()).add(report);
+            }
+        }
+        Map<Employee, List<Employee>> reports = new HashMap<>();
+        for (Employee employee : employees) {
+            reports.put(employee, byManager.getOrDefault(employee.getId(), List.of()));
+        }
+        return reports;
+    }
+
+    private static Long parseId(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static KeysetScrollPosition keyset(ScrollSubrange subrange) {
+        ScrollPosition position = subrange.position().orElse(ScrollPosition.keyset());
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return keyset;
+    }
+
+    private static int first(ScrollSubrange subrange) {
+        int first = subrange.count().orElse(10);
+        if (first > MAX_FIRST) {
+            throw new IllegalArgumentException("first must be at most " + MAX_FIRST);
+        }
+        return first > 0 ? first : 10;
     }
 
     private void applyCreateInput(Employee employee, CreateEmployeeInput data) {
@@ -1,6 +1,11 @@
 package com.syncbridge.controller;
 
-import java.util.List;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,10 +14,22 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.syncbridge.dto.SyncDtos;
 import com.syncbridge.entity.ApiResponse;
+import com.syncbridge.entity.RollupGranularity;
+import com.syncbridge.entity.SyncHistory;
+import com.syncbridge.entity.SyncMode;
+import com.syncbridge.exception.ApiException;
+import com.syncbridge.service.SyncJobService;
+import com.syncbridge.service.SyncRollupService;
 import com.syncbridge.service.SyncService;
+import com.syncbridge.service.SyncTimings;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/api/v1/sync")
@@ -21,13 +38,61 @@ public class SyncController {
     @Autowired
     private SyncService syncService;
 
+    @Autowired
+    private SyncJobService syncJobService;
+
+    @Autowired
+    private SyncRollupService syncRollupService;
+
     @PostMapping
-    @SuppressWarnings("unchecked")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> sync(@RequestBody Map<String, Object> payload) {
-        String model = (String) payload.get("model");
-        List<Map<String, Object>> data = (List<Map<String, Object>>) payload.get("data");
+    public ResponseEntity<ApiResponse<Map<String, Object>>> sync(@RequestBody SyncDtos.SyncRequest<?> payload,
+                                                                 @RequestParam(required = false) String mode,
+                                                                 @RequestParam(defaultValue = "false") boolean async,
+                                                                 @RequestParam(defaultValue = "false") boolean parallel,
+                                                                 @RequestParam(defaultValue = "false") boolean timings,
+                                                                 @RequestAttribute(name = SyncTimingAdvice.ATTRIBUTE,
+                                                                         required = false) SyncTimings syncTimings) {
+        SyncTimings stages = syncTimings != null ? syncTimings : new SyncTimings();
+        SyncMode syncMode = SyncMode.fromValue(mode);
+        if (async && parallel) {
+            throw new ApiException(400, "async and parallel cannot be combined");
+        }
+        if (syncMode == SyncMode.PARTIAL) {
+            if (async || parallel) {
+                throw new ApiException(400, "mode=partial cannot be combined with async or parallel");
+            }
+            return completed(withTimings(syncService.syncPartial(payload.getModel(), payload.getData(), stages),
+                    timings, stages));
+        }
+        if (parallel) {
+            return completed(withTimings(syncService.syncParallel(payload.getModel(), payload.getData(), syncMode,
+                    stages), timings, stages));
+        }
+        if (async) {
+            SyncHistory job = syncJobService.submit(payload.getModel(), payload.getData(), syncMode);
+            Map<String, Object> accepted = new HashMap<>();
+            accepted.put("id", job.getId());
+            accepted.put("status", job.getStatus().getValue());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/sync-history/" + job.getId()))
+                    .body(new ApiResponse<>(202, "Sync accepted", accepted));
+        }
 
-        Map<String, Object> result = syncService.sync(model, data);
+        Map<String, Object> result = syncService.sync(payload.getModel(), payload.getData(), syncMode, stages);
+        withTimings(result, timings, stages);
+        return ResponseEntity.ok(new ApiResponse<>(200, "Sync successful", result));
+    }
+
+    @PostMapping(path = "/stream", consumes = "application/x-ndjson")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> syncStream(@RequestParam String model,
+                                                                       @RequestParam(required = false) String mode,
+                                                                       @RequestParam(defaultValue = "false")
+                                                                       boolean timings,
+                                                                       HttpServletRequest request) throws IOException {
+        SyncTimings stages = new SyncTimings();
+        Map<String, Object> result = syncService.syncStream(model, request.getInputStream(), SyncMode.fromValue(mode),
+                stages);
+        withTimings(result, timings, stages);
         return ResponseEntity.ok(new ApiResponse<>(200, "Sync successful", result));
     }
 
@@ -36,4 +101,47 @@ public class SyncController {
         Map<String, Object> stats = syncService.getStats();
         return ResponseEntity.ok(new ApiResponse<>(200, "Sync stats retrieved successfully", stats));
     }
+
+    /**
+     * Per-model sync counts, rows and durations from the minute or hour rollups. {@code from} and
+     * {@code to} are ISO-8601 instants; the default range is the last 24 hours.
+     */
+    @GetMapping("/stats/timeseries")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getTimeseries(
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        Instant end = to == null ? Instant.now() : parseInstant("to", to);
+        Instant start = from == null ? end.minus(Duration.ofDays(1)) : parseInstant("from", from);
+        Map<String, Object> series = syncRollupService.timeseries(RollupGranularity.fromValue(granularity), model,
+                start, end);
+        return ResponseEntity.ok(new ApiResponse<>(200, "Sync timeseries retrieved successfully", series));
+    }
+
+    private static Instant parseInstant(String name, String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, "Invalid " + name + ": expected an ISO-8601 instant");
+        }
+    }
+
+    /**
+     * Echoes the per-stage breakdown in the response when {@code timings=true}, for debugging slow payloads.
+     */
+    private static Map<String, Object> withTimings(Map<String, Object> result, boolean requested,
+                                                   SyncTimings timings) {
+        if (requested) {
+            result.put("timings", timings.toMap());
+        }
+        return result;
+    }
+
+    private ResponseEntity<ApiResponse<Map<String, Object>>> completed(Map<String, Object> result) {
+        if ((Long) result.get("failed") > 0) {
+            return ResponseEntity.status(207).body(new ApiResponse<>(207, "Sync partially failed", result));
+        }
+        return ResponseEntity.ok(new ApiResponse<>(200, "Sync successful", result));
+    }
 }
@@ -2,9 +2,11 @@ package com.syncbridge.controller;
 
 import java.util.Map;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,28 +20,52 @@ import com.syncbridge.entity.SyncHistory;
 import com.syncbridge.entity.SyncStatus;
 import com.syncbridge.exception.ApiException;
 import com.syncbridge.repository.SyncHistoryRepository;
+import com.syncbridge.service.SyncHistoryService;
+import com.syncbridge.service.SyncRetentionService;
+import com.syncbridge.service.SyncStatsTracker;
 import com.syncbridge.util.ResponseUtil;
 
 @RestController
 @RequestMapping("/api/v1/sync-history")
 public class SyncHistoryController {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final SyncHistoryRepository repository;
+    private final SyncHistoryService syncHistoryService;
+    private final SyncStatsTracker statsTracker;
+    private final ObjectProvider<SyncRetentionService> retentionService;
 
-    public SyncHistoryController(SyncHistoryRepository repository) {
+    public SyncHistoryController(SyncHistoryRepository repository, SyncHistoryService syncHistoryService,
+                                 SyncStatsTracker statsTracker, ObjectProvider<SyncRetentionService> retentionService) {
         this.repository = repository;
+        this.syncHistoryService = syncHistoryService;
+        this.statsTracker = statsTracker;
+        this.retentionService = retentionService;
     }
 
+    /**
+     * Lists history. Without {@code cursor} this is the offset listing returning a Spring {@code Page}. With it
+     * (empty for the first page) it is a keyset listing, newest first: pass the returned {@code next} as
+     * {@code cursor} to fetch the following page. {@code size} is capped at {@value #MAX_PAGE_SIZE}.
+     */
     @GetMapping
     public ResponseEntity<Map<String, Object>> list(@RequestParam(required = false) Integer page,
                                                     @RequestParam(required = false) Integer size,
-                                                    @RequestParam(required = false) String status) {
+                                                    @RequestParam(required = false) String status,
+                                                    @RequestParam(required = false) String cursor) {
+        int s = size != null && size > 0 ? Math.min(size, MAX_PAGE_SIZE) : 15;
+        SyncStatus syncStatus = status != null ? SyncStatus.valueOf(status) : null;
+        if (cursor != null) {
+            return ResponseUtil.ok("Sync histories retrieved successfully",
+                    syncHistoryService.listPage(syncStatus, cursor, s));
+        }
+
         int p = page != null && page > 0 ? page - 1 : 0;
-        int s = size != null && size > 0 ? size : 15;
         Pageable pageable = PageRequest.of(p, s);
 
         Page<SyncHistory> data;
-        if (status != null) {
-            data = repository.findByStatus(SyncStatus.valueOf(status), pageable);
+        if (syncStatus != null) {
+            data = repository.findByStatus(syncStatus, pageable);
         } else {
             data = repository.findAll(pageable);
         }
@@ -52,6 +78,11 @@ public class SyncHistoryController {
         return ResponseUtil.ok("Sync history retrieved successfully", sh);
     }
 
+    @GetMapping(path = "/{id}/payload", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> payload(@PathVariable Long id) {
+        return ResponseEntity.ok(syncHistoryService.loadPayload(id));
+    }
+
     @PostMapping("/retry/{id}")
     public ResponseEntity<Map<String, Object>> retry(@PathVariable Long id) {
         SyncHistory sh = repository.findById(id).orElseThrow(() -> new ApiException(404, "Sync history not found"));
@@ -59,14 +90,26 @@ public class SyncHistoryController {
             throw new ApiException(400, "Only failed syncs can be retried");
         }
         sh.setStatus(SyncStatus.PENDING_RETRY);
+        sh.setNextAttemptAt(null);
         repository.save(sh);
+        statsTracker.record(sh.getModel(), SyncStatus.FAILED, SyncStatus.PENDING_RETRY);
         return ResponseUtil.ok("Sync history will be retried", sh);
     }
 
+    @PostMapping("/purge")
+    public ResponseEntity<Map<String, Object>> purge() {
+        SyncRetentionService retention = retentionService.getIfAvailable();
+        if (retention == null) {
+            throw new ApiException(409, "Sync history retention is disabled");
+        }
+        return ResponseUtil.ok("Sync history purged", retention.purge());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> delete(@PathVariable Long id) {
         SyncHistory sh = repository.findById(id).orElseThrow(() -> new ApiException(404, "Sync history not found"));
         repository.delete(sh);
+        statsTracker.record(sh.getModel(), sh.getStatus(), null);
         return ResponseUtil.status(204, "Sync history deleted successfully", null);
     }
 }
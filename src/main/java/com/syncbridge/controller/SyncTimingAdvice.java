@@ -0,0 +1,53 @@
+package com.syncbridge.controller;
+
+import java.lang.reflect.Type;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import com.syncbridge.dto.SyncDtos;
+import com.syncbridge.service.SyncTimings;
+
+/**
+ * Starts the {@link SyncTimings} of a sync request before its body is read, so the time Jackson spends
+ * binding the payload is counted as the deserialize stage. The controller picks it up from the
+ * {@value #ATTRIBUTE} request attribute.
+ */
+@ControllerAdvice(assignableTypes = SyncController.class)
+public class SyncTimingAdvice extends RequestBodyAdviceAdapter {
+
+    public static final String ATTRIBUTE = "syncTimings";
+    private static final String READ_START = "syncTimings.readStart";
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return SyncDtos.SyncRequest.class.isAssignableFrom(methodParameter.getParameterType());
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        attributes.setAttribute(ATTRIBUTE, new SyncTimings(), RequestAttributes.SCOPE_REQUEST);
+        attributes.setAttribute(READ_START, System.nanoTime(), RequestAttributes.SCOPE_REQUEST);
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        SyncTimings timings = (SyncTimings) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        Long readStart = (Long) attributes.getAttribute(READ_START, RequestAttributes.SCOPE_REQUEST);
+        if (timings != null && readStart != null) {
+            timings.since(SyncTimings.Stage.DESERIALIZE, readStart);
+        }
+        return body;
+    }
+}
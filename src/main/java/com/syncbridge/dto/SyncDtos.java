@@ -4,6 +4,8 @@ import java.time.Instant;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
@@ -14,21 +16,44 @@ import jakarta.validation.constraints.Size;
 
 public class SyncDtos {
 
-    public static class SyncRequest {
+    /**
+     * Sync envelope bound directly from the request body. The {@code model} property selects the
+     * concrete subtype, so {@code data} is deserialized straight into the model DTOs without an
+     * intermediate map tree. Unknown models fall back to {@link UnknownSyncRequest}.
+     */
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "model",
+            visible = true, defaultImpl = UnknownSyncRequest.class)
+    @JsonSubTypes({
+        @JsonSubTypes.Type(value = CustomerSyncRequest.class, name = "customers"),
+        @JsonSubTypes.Type(value = ProductSyncRequest.class, name = "products"),
+        @JsonSubTypes.Type(value = OrderSyncRequest.class, name = "orders"),
+        @JsonSubTypes.Type(value = EmployeeSyncRequest.class, name = "employees")
+    })
+    public abstract static class SyncRequest<T> {
         @NotBlank
         @Pattern(regexp = "customers|products|orders|employees", message = "Invalid model")
         public String model;
 
         @NotNull
         @Size(min = 1)
-        public List<Object> data;
+        public List<@Valid T> data;
 
         public String getModel() { return model; }
         public void setModel(String model) { this.model = model; }
-        public List<Object> getData() { return data; }
-        public void setData(List<Object> data) { this.data = data; }
+        public List<T> getData() { return data; }
+        public void setData(List<T> data) { this.data = data; }
     }
 
+    public static class CustomerSyncRequest extends SyncRequest<CustomerDto> {}
+
+    public static class ProductSyncRequest extends SyncRequest<ProductDto> {}
+
+    public static class OrderSyncRequest extends SyncRequest<OrderDto> {}
+
+    public static class EmployeeSyncRequest extends SyncRequest<EmployeeDto> {}
+
+    public static class UnknownSyncRequest extends SyncRequest<Object> {}
+
     public static class CustomerDto {
         public Long id;
         @NotBlank @Email public String email;
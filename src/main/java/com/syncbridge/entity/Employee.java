@@ -2,14 +2,20 @@ package com.syncbridge.entity;
 
 import java.time.Instant;
 
+import com.syncbridge.util.ContentHash;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "employees")
-public class Employee {
+@Table(name = "employees", indexes = {
+        @Index(name = "idx_employees_manager_id", columnList = "manager_id"),
+        @Index(name = "idx_employees_manager_email", columnList = "manager_email")
+})
+public class Employee implements Fingerprinted {
     @Id
     @Column(length = 100)
     private Long id;
@@ -45,6 +51,16 @@ public class Employee {
     private Instant lastModifiedOn;
     private Long lastModified;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Override
+    public String computeContentHash() {
+        return ContentHash.of(employeeId, firstName, middleName, lastName, gender, email, phoneNumber,
+                dateOfBirth, nationality, jobLevel, department, location, bankAccountNumber, company, jobTitle,
+                costCenter, startDate, employeeStatus, managerId, managerEmail, lastModifiedOn, lastModified);
+    }
+
     // getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -92,5 +108,7 @@ public class Employee {
     public void setLastModifiedOn(Instant lastModifiedOn) { this.lastModifiedOn = lastModifiedOn; }
     public Long getLastModified() { return lastModified; }
     public void setLastModified(Long lastModified) { this.lastModified = lastModified; }
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
 }
 
@@ -0,0 +1,18 @@
+package com.syncbridge.entity;
+
+/**
+ * Entities carrying a content fingerprint of their synced fields. The sync path compares
+ * stored fingerprints in bulk and skips rows whose incoming fingerprint is identical.
+ */
+public interface Fingerprinted {
+    String getContentHash();
+
+    void setContentHash(String contentHash);
+
+    /** Hash of the synced fields only; ids and timestamps are excluded. */
+    String computeContentHash();
+
+    default void refreshContentHash() {
+        setContentHash(computeContentHash());
+    }
+}
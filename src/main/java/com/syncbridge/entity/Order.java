@@ -7,6 +7,8 @@ import java.util.List;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.syncbridge.util.ContentHash;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -16,13 +18,16 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "orders")
-public class Order {
+public class Order implements Fingerprinted {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "order_number", nullable = false, unique = true)
@@ -33,6 +38,7 @@ public class Order {
     private Customer customer;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
     private List<OrderItem> items = new ArrayList<>();
 
     @Column(nullable = false)
@@ -44,6 +50,9 @@ public class Order {
     @Column(nullable = false)
     private Integer amount;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @CreationTimestamp
     @Column(name = "placed_at", updatable = false)
     private Instant placedAt;
@@ -52,6 +61,21 @@ public class Order {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
+    @Override
+    public String computeContentHash() {
+        StringBuilder itemsKey = new StringBuilder();
+        if (items != null) {
+            for (OrderItem item : items) {
+                itemsKey.append(item.getProduct() == null ? null : item.getProduct().getId())
+                        .append('x').append(item.getQty())
+                        .append('@').append(item.getUnitPrice())
+                        .append(';');
+            }
+        }
+        return ContentHash.of(orderNumber, customer == null ? null : customer.getId(), status, currency, amount,
+                itemsKey);
+    }
+
     // helpers
     public void addItem(OrderItem item) {
         items.add(item);
@@ -77,5 +101,7 @@ public class Order {
     public void setPlacedAt(Instant placedAt) { this.placedAt = placedAt; }
     public Instant getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
 }
 
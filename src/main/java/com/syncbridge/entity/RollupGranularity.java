@@ -0,0 +1,44 @@
+package com.syncbridge.entity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import com.syncbridge.exception.ApiException;
+
+public enum RollupGranularity {
+    MINUTE("minute", ChronoUnit.MINUTES),
+    HOUR("hour", ChronoUnit.HOURS);
+
+    private final String value;
+    private final ChronoUnit unit;
+
+    RollupGranularity(String value, ChronoUnit unit) {
+        this.value = value;
+        this.unit = unit;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public Duration getWidth() {
+        return unit.getDuration();
+    }
+
+    public Instant bucketOf(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public static RollupGranularity fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return MINUTE;
+        }
+        for (RollupGranularity granularity : values()) {
+            if (granularity.value.equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        throw new ApiException(400, "Invalid granularity: " + value);
+    }
+}
@@ -1,5 +1,6 @@
 package com.syncbridge.entity;
 
+import java.time.Duration;
 import java.time.Instant;
 
 import org.hibernate.annotations.CreationTimestamp;
@@ -12,30 +13,72 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
 @Entity
-@Table(name = "sync_history")
+@Table(name = "sync_history", indexes = {
+        @Index(name = "idx_sync_history_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_sync_history_created", columnList = "created_at, id"),
+        @Index(name = "idx_sync_history_rollup", columnList = "rolled_up, completed_at")
+})
 public class SyncHistory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sync_history_seq")
+    @SequenceGenerator(name = "sync_history_seq", sequenceName = "sync_history_seq", allocationSize = 50)
     private Long id;
 
-    @Lob
-    @Column(nullable = false)
-    private String payload;
+    @Column(name = "payload_size")
+    private Long payloadSize;
+
+    @Column(name = "payload_stored_size")
+    private Long payloadStoredSize;
+
+    @Column(name = "payload_rows")
+    private Integer payloadRows;
+
+    @Column(name = "payload_hash", length = 64)
+    private String payloadHash;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private SyncStatus status = SyncStatus.PENDING_RETRY;
 
-    @Column(name = "failure_reason")
+    public static final int FAILURE_REASON_LENGTH = 1000;
+
+    @Column(name = "failure_reason", length = FAILURE_REASON_LENGTH)
     private String failureReason;
 
     @Column(nullable = false)
     private Integer retries = 0;
 
+    @Column(length = 32)
+    private String model;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private SyncMode mode;
+
+    @Column(name = "rows_processed")
+    private Long rowsProcessed = 0L;
+
+    @Column(name = "rows_failed")
+    private Long rowsFailed = 0L;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(name = "rolled_up", nullable = false)
+    private Boolean rolledUp = false;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private Instant createdAt;
@@ -44,17 +87,52 @@ public class SyncHistory {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
+    @Transient
+    public Long getElapsedMillis() {
+        if (startedAt == null) {
+            return null;
+        }
+        Instant end = completedAt != null ? completedAt : Instant.now();
+        return Duration.between(startedAt, end).toMillis();
+    }
+
+    public static String truncateReason(String reason) {
+        return reason == null || reason.length() <= FAILURE_REASON_LENGTH ? reason : reason.substring(0, FAILURE_REASON_LENGTH);
+    }
+
     // getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
-    public String getPayload() { return payload; }
-    public void setPayload(String payload) { this.payload = payload; }
+    public Long getPayloadSize() { return payloadSize; }
+    public void setPayloadSize(Long payloadSize) { this.payloadSize = payloadSize; }
+    public Long getPayloadStoredSize() { return payloadStoredSize; }
+    public void setPayloadStoredSize(Long payloadStoredSize) { this.payloadStoredSize = payloadStoredSize; }
+    public Integer getPayloadRows() { return payloadRows; }
+    public void setPayloadRows(Integer payloadRows) { this.payloadRows = payloadRows; }
+    public String getPayloadHash() { return payloadHash; }
+    public void setPayloadHash(String payloadHash) { this.payloadHash = payloadHash; }
     public SyncStatus getStatus() { return status; }
     public void setStatus(SyncStatus status) { this.status = status; }
     public String getFailureReason() { return failureReason; }
-    public void setFailureReason(String failureReason) { this.failureReason = failureReason; }
+    public void setFailureReason(String failureReason) { this.failureReason = truncateReason(failureReason); }
     public Integer getRetries() { return retries; }
     public void setRetries(Integer retries) { this.retries = retries; }
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+    public SyncMode getMode() { return mode; }
+    public void setMode(SyncMode mode) { this.mode = mode; }
+    public Long getRowsProcessed() { return rowsProcessed; }
+    public void setRowsProcessed(Long rowsProcessed) { this.rowsProcessed = rowsProcessed; }
+    public Long getRowsFailed() { return rowsFailed; }
+    public void setRowsFailed(Long rowsFailed) { this.rowsFailed = rowsFailed; }
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+    public Instant getCompletedAt() { return completedAt; }
+    public void setCompletedAt(Instant completedAt) { this.completedAt = completedAt; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public Boolean getRolledUp() { return rolledUp; }
+    public void setRolledUp(Boolean rolledUp) { this.rolledUp = rolledUp; }
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
     public Instant getUpdatedAt() { return updatedAt; }
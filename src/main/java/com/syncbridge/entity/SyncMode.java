@@ -0,0 +1,31 @@
+package com.syncbridge.entity;
+
+import com.syncbridge.exception.ApiException;
+
+public enum SyncMode {
+    DEFAULT("default"),
+    UPSERT("upsert"),
+    PARTIAL("partial");
+
+    private final String value;
+
+    SyncMode(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public static SyncMode fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT;
+        }
+        for (SyncMode mode : values()) {
+            if (mode.value.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new ApiException(400, "Invalid sync mode: " + value);
+    }
+}
@@ -0,0 +1,47 @@
+package com.syncbridge.entity;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+
+/**
+ * Request body of a sync, gzip-compressed and kept out of the sync_history row so that
+ * listing history never reads it. Shares its key with the history row and is removed with it.
+ */
+@Entity
+@Table(name = "sync_payloads")
+public class SyncPayload {
+    @Id
+    private Long id;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "history_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private SyncHistory history;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] data;
+
+    protected SyncPayload() {
+    }
+
+    public SyncPayload(SyncHistory history, byte[] data) {
+        this.history = history;
+        this.data = data;
+    }
+
+    // getters and setters
+    public Long getId() { return id; }
+    public SyncHistory getHistory() { return history; }
+    public byte[] getData() { return data; }
+    public void setData(byte[] data) { this.data = data; }
+}
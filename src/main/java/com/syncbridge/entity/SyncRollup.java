@@ -0,0 +1,163 @@
+package com.syncbridge.entity;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Pre-aggregated sync activity for one model in one minute or hour bucket. Durations are kept
+ * as a total, a maximum and counts over fixed latency bounds, so buckets can be merged and
+ * percentiles estimated without going back to sync_history.
+ */
+@Entity
+@Table(name = "sync_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_sync_rollups_bucket", columnNames = {"granularity", "bucket_start", "model"}))
+public class SyncRollup {
+    /** Upper bounds of the duration histogram buckets in ms; the last bucket is unbounded. */
+    public static final long[] DURATION_BOUNDS_MS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 20_000, 50_000, 100_000, 200_000, 500_000
+    };
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sync_rollups_seq")
+    @SequenceGenerator(name = "sync_rollups_seq", sequenceName = "sync_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(nullable = false, length = 32)
+    private String model;
+
+    @Column(nullable = false)
+    private Long syncs = 0L;
+
+    @Column(nullable = false)
+    private Long successful = 0L;
+
+    @Column(nullable = false)
+    private Long failed = 0L;
+
+    @Column(name = "rows_processed", nullable = false)
+    private Long rowsProcessed = 0L;
+
+    @Column(name = "rows_failed", nullable = false)
+    private Long rowsFailed = 0L;
+
+    @Column(name = "duration_total_ms", nullable = false)
+    private Long durationTotalMs = 0L;
+
+    @Column(name = "duration_max_ms", nullable = false)
+    private Long durationMaxMs = 0L;
+
+    @Column(name = "duration_histogram", nullable = false, length = 512)
+    private String durationHistogram = encode(new long[DURATION_BOUNDS_MS.length + 1]);
+
+    protected SyncRollup() {
+    }
+
+    public SyncRollup(RollupGranularity granularity, Instant bucketStart, String model) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.model = model;
+    }
+
+    /**
+     * Folds one completed sync into this bucket.
+     */
+    public void add(SyncStatus status, long rows, long failedRows, Long durationMs) {
+        syncs++;
+        if (status == SyncStatus.SUCCESSFUL) {
+            successful++;
+        } else {
+            failed++;
+        }
+        rowsProcessed += rows;
+        rowsFailed += failedRows;
+        if (durationMs != null) {
+            durationTotalMs += durationMs;
+            durationMaxMs = Math.max(durationMaxMs, durationMs);
+            long[] counts = getDurationCounts();
+            counts[durationBucket(durationMs)]++;
+            durationHistogram = encode(counts);
+        }
+    }
+
+    /**
+     * Adds another bucket's totals into this one; the histogram is merged separately by the caller.
+     */
+    public void merge(SyncRollup other) {
+        syncs += other.syncs;
+        successful += other.successful;
+        failed += other.failed;
+        rowsProcessed += other.rowsProcessed;
+        rowsFailed += other.rowsFailed;
+        durationTotalMs += other.durationTotalMs;
+        durationMaxMs = Math.max(durationMaxMs, other.durationMaxMs);
+    }
+
+    public long[] getDurationCounts() {
+        return Arrays.stream(durationHistogram.split(",")).mapToLong(Long::parseLong).toArray();
+    }
+
+    /**
+     * Estimates the {@code quantile} duration from histogram counts as the upper bound of the bucket
+     * it falls in (the observed maximum for the unbounded bucket).
+     */
+    public static Long percentile(long[] counts, double quantile, long maxMs) {
+        long total = Arrays.stream(counts).sum();
+        if (total == 0) {
+            return null;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i < DURATION_BOUNDS_MS.length ? Math.min(DURATION_BOUNDS_MS[i], maxMs) : maxMs;
+            }
+        }
+        return maxMs;
+    }
+
+    private static int durationBucket(long durationMs) {
+        for (int i = 0; i < DURATION_BOUNDS_MS.length; i++) {
+            if (durationMs <= DURATION_BOUNDS_MS[i]) {
+                return i;
+            }
+        }
+        return DURATION_BOUNDS_MS.length;
+    }
+
+    private static String encode(long[] counts) {
+        return Arrays.stream(counts).mapToObj(Long::toString).collect(Collectors.joining(","));
+    }
+
+    // getters
+    public Long getId() { return id; }
+    public RollupGranularity getGranularity() { return granularity; }
+    public Instant getBucketStart() { return bucketStart; }
+    public String getModel() { return model; }
+    public Long getSyncs() { return syncs; }
+    public Long getSuccessful() { return successful; }
+    public Long getFailed() { return failed; }
+    public Long getRowsProcessed() { return rowsProcessed; }
+    public Long getRowsFailed() { return rowsFailed; }
+    public Long getDurationTotalMs() { return durationTotalMs; }
+    public Long getDurationMaxMs() { return durationMaxMs; }
+}
@@ -5,7 +5,8 @@ public enum SyncStatus {
     SUCCESSFUL("successful"),
     FAILED("failed"),
     INVALID("invalid"),
-    PENDING_RETRY("pending_retry");
+    PENDING_RETRY("pending_retry"),
+    PROCESSING("processing");
 
     private final String value;
 
@@ -1,6 +1,8 @@
 package com.syncbridge.mapper;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
@@ -23,6 +25,7 @@ public class SyncMapper {
         c.setFirstName(d.getFirstName());
         c.setLastName(d.getLastName());
         c.setDefaultCurrency(d.getDefaultCurrency() == null ? "USD" : d.getDefaultCurrency());
+        c.refreshContentHash();
         return c;
     }
 
@@ -36,6 +39,7 @@ public class SyncMapper {
         Boolean active = d.getActive();
         p.setActive(active == null ? Boolean.TRUE : active);
         p.setWeightGrams(d.getWeightGrams());
+        p.refreshContentHash();
         return p;
     }
 
@@ -89,6 +93,7 @@ public class SyncMapper {
             }).collect(Collectors.toList());
             o.setItems(items);
         }
+        o.refreshContentHash();
         return o;
     }
 
@@ -119,6 +124,106 @@ public class SyncMapper {
         e.setManagerEmail(d.getManagerEmail());
         e.setLastModifiedOn(d.getLastModifiedOn());
         e.setLastModified(d.getLastModified());
+        e.refreshContentHash();
         return e;
     }
-}
\ No newline at end of file
+
+    /**
+     * Copies the mapped fields of {@code source} onto the managed {@code target}.
+     * Returns false when nothing differs, so the caller can skip the write entirely.
+     */
+    public boolean mergeCustomer(Customer target, Customer source) {
+        boolean changed = apply(target.getEmail(), source.getEmail(), target::setEmail);
+        changed |= apply(target.getFirstName(), source.getFirstName(), target::setFirstName);
+        changed |= apply(target.getLastName(), source.getLastName(), target::setLastName);
+        changed |= apply(target.getDefaultCurrency(), source.getDefaultCurrency(), target::setDefaultCurrency);
+        return changed;
+    }
+
+    public boolean mergeProduct(Product target, Product source) {
+        boolean changed = apply(target.getName(), source.getName(), target::setName);
+        changed |= apply(target.getDescription(), source.getDescription(), target::setDescription);
+        changed |= apply(target.getPrice(), source.getPrice(), target::setPrice);
+        changed |= apply(target.getCurrency(), source.getCurrency(), target::setCurrency);
+        changed |= apply(target.getActive(), source.getActive(), target::setActive);
+        changed |= apply(target.getWeightGrams(), source.getWeightGrams(), target::setWeightGrams);
+        return changed;
+    }
+
+    public boolean mergeOrder(Order target, Order source) {
+        boolean changed = apply(target.getOrderNumber(), source.getOrderNumber(), target::setOrderNumber);
+        changed |= apply(target.getStatus(), source.getStatus(), target::setStatus);
+        changed |= apply(target.getCurrency(), source.getCurrency(), target::setCurrency);
+        changed |= apply(target.getAmount(), source.getAmount(), target::setAmount);
+        if (!Objects.equals(customerId(target), customerId(source))) {
+            target.setCustomer(source.getCustomer());
+            changed = true;
+        }
+        if (!sameItems(target.getItems(), source.getItems())) {
+            // orphanRemoval on Order.items deletes the replaced rows
+            target.getItems().clear();
+            if (source.getItems() != null) {
+                source.getItems().forEach(target::addItem);
+            }
+            changed = true;
+        }
+        return changed;
+    }
+
+    public boolean mergeEmployee(Employee target, Employee source) {
+        boolean changed = apply(target.getEmployeeId(), source.getEmployeeId(), target::setEmployeeId);
+        changed |= apply(target.getFirstName(), source.getFirstName(), target::setFirstName);
+        changed |= apply(target.getMiddleName(), source.getMiddleName(), target::setMiddleName);
+        changed |= apply(target.getLastName(), source.getLastName(), target::setLastName);
+        changed |= apply(target.getGender(), source.getGender(), target::setGender);
+        changed |= apply(target.getEmail(), source.getEmail(), target::setEmail);
+        changed |= apply(target.getPhoneNumber(), source.getPhoneNumber(), target::setPhoneNumber);
+        changed |= apply(target.getDateOfBirth(), source.getDateOfBirth(), target::setDateOfBirth);
+        changed |= apply(target.getNationality(), source.getNationality(), target::setNationality);
+        changed |= apply(target.getJobLevel(), source.getJobLevel(), target::setJobLevel);
+        changed |= apply(target.getDepartment(), source.getDepartment(), target::setDepartment);
+        changed |= apply(target.getLocation(), source.getLocation(), target::setLocation);
+        changed |= apply(target.getBankAccountNumber(), source.getBankAccountNumber(), target::setBankAccountNumber);
+        changed |= apply(target.getCompany(), source.getCompany(), target::setCompany);
+        changed |= apply(target.getJobTitle(), source.getJobTitle(), target::setJobTitle);
+        changed |= apply(target.getCostCenter(), source.getCostCenter(), target::setCostCenter);
+        changed |= apply(target.getStartDate(), source.getStartDate(), target::setStartDate);
+        changed |= apply(target.getEmployeeStatus(), source.getEmployeeStatus(), target::setEmployeeStatus);
+        changed |= apply(target.getManagerId(), source.getManagerId(), target::setManagerId);
+        changed |= apply(target.getManagerEmail(), source.getManagerEmail(), target::setManagerEmail);
+        changed |= apply(target.getLastModifiedOn(), source.getLastModifiedOn(), target::setLastModifiedOn);
+        changed |= apply(target.getLastModified(), source.getLastModified(), target::setLastModified);
+        return changed;
+    }
+
+    private static <T> boolean apply(T current, T incoming, Consumer<T> setter) {
+        if (Objects.equals(current, incoming)) {
+            return false;
+        }
+        setter.accept(incoming);
+        return true;
+    }
+
+    private static Long customerId(Order o) {
+        return o.getCustomer() == null ? null : o.getCustomer().getId();
+    }
+
+    private static boolean sameItems(List<OrderItem> current, List<OrderItem> incoming) {
+        List<OrderItem> a = current == null ? List.of() : current;
+        List<OrderItem> b = incoming == null ? List.of() : incoming;
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            OrderItem x = a.get(i);
+            OrderItem y = b.get(i);
+            Long xProduct = x.getProduct() == null ? null : x.getProduct().getId();
+            Long yProduct = y.getProduct() == null ? null : y.getProduct().getId();
+            if (!Objects.equals(xProduct, yProduct) || !Objects.equals(x.getQty(), y.getQty())
+                    || !Objects.equals(x.getUnitPrice(), y.getUnitPrice())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,12 @@
+package com.syncbridge.repository;
+
+/**
+ * Lightweight projection used to compare stored content fingerprints without loading entities.
+ */
+public interface ContentFingerprint {
+    String getNaturalKey();
+
+    Long getId();
+
+    String getContentHash();
+}
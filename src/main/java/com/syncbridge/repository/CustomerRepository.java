@@ -1,8 +1,22 @@
 package com.syncbridge.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.syncbridge.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
-}
+    List<Customer> findByEmailIn(Collection<String> emails);
+
+    @Query("SELECT c.email AS naturalKey, c.id AS id, c.contentHash AS contentHash FROM Customer c WHERE c.email IN :keys")
+    List<ContentFingerprint> findFingerprintsByEmailIn(@Param("keys") Collection<String> keys);
 
+    @Query("SELECT c.email AS naturalKey, c.id AS id, c.contentHash AS contentHash FROM Customer c WHERE c.id IN :ids")
+    List<ContentFingerprint> findFingerprintsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id FROM Customer c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
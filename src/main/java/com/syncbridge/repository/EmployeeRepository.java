@@ -1,7 +1,13 @@
 package com.syncbridge.repository;
 
-import org.springframework.data.domain.Page;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,8 +16,49 @@ import com.syncbridge.entity.Employee;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
-    @Query("SELECT e FROM Employee e WHERE lower(e.firstName) LIKE lower(concat('%', :search, '%')) "
+    List<Employee> findByEmailIn(Collection<String> emails);
+
+    /**
+     * One window of employees from {@code position}: a keyset position seeks past the last key, an offset
+     * position skips rows. Reads one row beyond {@code limit} to tell whether more follow, never a count.
+     */
+    Window<Employee> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Direct reports of a set of managers: rows whose {@code managerId} is one of {@code managerIds}, or that
+     * have no {@code managerId} and name one of {@code managerEmails} instead.
+     */
+    @Query("SELECT e FROM Employee e WHERE e.managerId IN :managerIds "
+            + "OR (e.managerId IS NULL AND e.managerEmail IN :managerEmails) ORDER BY e.id")
+    List<Employee> findReports(@Param("managerIds") Collection<String> managerIds,
+                               @Param("managerEmails") Collection<String> managerEmails);
+
+    /**
+     * Employees after {@code afterId} in id order whose name or email contains {@code search}. Only narrows the
+     * table scan that stands in for the search index until it has been built.
+     */
+    @Query("SELECT e FROM Employee e WHERE e.id > :afterId "
+            + "AND (lower(e.firstName) LIKE lower(concat('%', :search, '%')) "
             + "OR lower(e.lastName) LIKE lower(concat('%', :search, '%')) "
-            + "OR lower(e.email) LIKE lower(concat('%', :search, '%'))")
-    Page<Employee> searchEmployees(@Param("search") String search, Pageable pageable);
+            + "OR lower(e.email) LIKE lower(concat('%', :search, '%'))) ORDER BY e.id")
+    List<Employee> searchEmployeesAfter(@Param("search") String search, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Keyset batch of {@code [id, firstName, lastName, email]} rows in id order, starting strictly after
+     * {@code afterId}. Plain rows rather than a projection, since the search index build reads every employee.
+     */
+    @Query("SELECT e.id, e.firstName, e.lastName, e.email FROM Employee e WHERE e.id > :afterId ORDER BY e.id")
+    List<Object[]> findSearchFieldsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * {@code [id, firstName, lastName, email]} rows for the given ids, for refreshing the search index.
+     */
+    @Query("SELECT e.id, e.firstName, e.lastName, e.email FROM Employee e WHERE e.id IN :ids")
+    List<Object[]> findSearchFieldsIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT e.email AS naturalKey, e.id AS id, e.contentHash AS contentHash FROM Employee e WHERE e.email IN :keys")
+    List<ContentFingerprint> findFingerprintsByEmailIn(@Param("keys") Collection<String> keys);
+
+    @Query("SELECT e.email AS naturalKey, e.id AS id, e.contentHash AS contentHash FROM Employee e WHERE e.id IN :ids")
+    List<ContentFingerprint> findFingerprintsByIdIn(@Param("ids") Collection<Long> ids);
 }
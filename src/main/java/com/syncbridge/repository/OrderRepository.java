@@ -1,8 +1,21 @@
 package com.syncbridge.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.syncbridge.entity.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-}
+    @EntityGraph(attributePaths = "items")
+    List<Order> findByOrderNumberIn(Collection<String> orderNumbers);
 
+    @Query("SELECT o.orderNumber AS naturalKey, o.id AS id, o.contentHash AS contentHash FROM Order o WHERE o.orderNumber IN :keys")
+    List<ContentFingerprint> findFingerprintsByOrderNumberIn(@Param("keys") Collection<String> keys);
+
+    @Query("SELECT o.orderNumber AS naturalKey, o.id AS id, o.contentHash AS contentHash FROM Order o WHERE o.id IN :ids")
+    List<ContentFingerprint> findFingerprintsByIdIn(@Param("ids") Collection<Long> ids);
+}
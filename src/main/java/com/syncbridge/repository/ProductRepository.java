@@ -1,8 +1,22 @@
 package com.syncbridge.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.syncbridge.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
-}
+    List<Product> findByNameIn(Collection<String> names);
+
+    @Query("SELECT p.name AS naturalKey, p.id AS id, p.contentHash AS contentHash FROM Product p WHERE p.name IN :keys")
+    List<ContentFingerprint> findFingerprintsByNameIn(@Param("keys") Collection<String> keys);
 
+    @Query("SELECT p.name AS naturalKey, p.id AS id, p.contentHash AS contentHash FROM Product p WHERE p.id IN :ids")
+    List<ContentFingerprint> findFingerprintsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
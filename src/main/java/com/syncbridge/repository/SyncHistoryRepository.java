@@ -1,16 +1,129 @@
 package com.syncbridge.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.syncbridge.entity.SyncHistory;
 import com.syncbridge.entity.SyncStatus;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 public interface SyncHistoryRepository extends JpaRepository<SyncHistory, Long> {
+    String SUMMARY_COLUMNS = "s.id AS id, s.status AS status, s.failureReason AS failureReason, s.retries AS retries, "
+            + "s.model AS model, s.mode AS mode, s.rowsProcessed AS rowsProcessed, s.rowsFailed AS rowsFailed, "
+            + "s.payloadSize AS payloadSize, s.payloadRows AS payloadRows, s.payloadHash AS payloadHash, "
+            + "s.startedAt AS startedAt, s.completedAt AS completedAt, s.createdAt AS createdAt";
+
     Page<SyncHistory> findByStatus(SyncStatus status, Pageable pageable);
 
     @org.springframework.data.jpa.repository.Query("SELECT s.status, COUNT(s) FROM SyncHistory s GROUP BY s.status")
     java.util.List<Object[]> countByStatus();
+
+    long countByStatus(SyncStatus status);
+
+    @Query("SELECT s.model, s.status, COUNT(s) FROM SyncHistory s GROUP BY s.model, s.status")
+    List<Object[]> countByModelAndStatus();
+
+    /**
+     * Keyset page of history rows ordered newest first, starting strictly after the
+     * {@code (createdAt, id)} position of the previous page's last row.
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM SyncHistory s "
+            + "WHERE s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id) "
+            + "ORDER BY s.createdAt DESC, s.id DESC")
+    List<SyncHistorySummary> findPageAfter(@Param("createdAt") Instant createdAt, @Param("id") Long id,
+                                           Pageable pageable);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM SyncHistory s WHERE s.status = :status "
+            + "AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) "
+            + "ORDER BY s.createdAt DESC, s.id DESC")
+    List<SyncHistorySummary> findPageAfterByStatus(@Param("status") SyncStatus status,
+                                                   @Param("createdAt") Instant createdAt, @Param("id") Long id,
+                                                   Pageable pageable);
+
+    /**
+     * Locks due retry rows so concurrent workers never claim the same row. Rows already locked
+     * by another worker are skipped where the database supports SKIP LOCKED.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM SyncHistory s WHERE s.status = :status "
+            + "AND (s.nextAttemptAt IS NULL OR s.nextAttemptAt <= :now) ORDER BY s.id")
+    List<SyncHistory> findDueForRetry(@Param("status") SyncStatus status, @Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Locks PROCESSING rows whose lease ran out: nothing renewed {@code updatedAt} since {@code staleBefore}.
+     * Rows locked by a concurrent reaper are skipped where the database supports SKIP LOCKED.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM SyncHistory s WHERE s.status = :status AND s.updatedAt < :staleBefore ORDER BY s.id")
+    List<SyncHistory> findLeaseExpired(@Param("status") SyncStatus status, @Param("staleBefore") Instant staleBefore,
+                                       Pageable pageable);
+
+    /**
+     * Locks finished rows not yet folded into sync_rollups, oldest first. Rows locked by a
+     * concurrent rollup run are skipped where the database supports SKIP LOCKED.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM SyncHistory s WHERE s.rolledUp = false AND s.completedAt IS NOT NULL "
+            + "AND s.completedAt < :cutoff AND s.status IN :statuses ORDER BY s.id")
+    List<SyncHistory> findPendingRollup(@Param("statuses") Collection<SyncStatus> statuses,
+                                        @Param("cutoff") Instant cutoff, Pageable pageable);
+
+    /**
+     * Oldest rows in {@code status} created before {@code cutoff} that are already rolled up, for retention.
+     * Served by the (status, created_at, id) index.
+     */
+    @Query("SELECT s FROM SyncHistory s WHERE s.status = :status AND s.createdAt < :cutoff AND s.rolledUp = true "
+            + "ORDER BY s.createdAt, s.id")
+    List<SyncHistory> findExpired(@Param("status") SyncStatus status, @Param("cutoff") Instant cutoff,
+                                  Pageable pageable);
+
+    /**
+     * Deletes history rows by id without loading them, skipping any that left {@code status} meanwhile (e.g. a
+     * FAILED row queued for retry); their payloads go with them through the ON DELETE CASCADE foreign key on
+     * sync_payloads.
+     */
+    @Modifying
+    @Query("DELETE FROM SyncHistory s WHERE s.id IN :ids AND s.status = :status")
+    int deleteByIds(@Param("ids") Collection<Long> ids, @Param("status") SyncStatus status);
+
+    @Modifying
+    @Query("UPDATE SyncHistory s SET s.rolledUp = true WHERE s.id IN :ids")
+    int markRolledUp(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE SyncHistory s SET s.status = :status, s.failureReason = :reason, s.nextAttemptAt = :nextAttemptAt, "
+            + "s.updatedAt = :now WHERE s.id = :id")
+    int scheduleRetry(@Param("id") Long id, @Param("status") SyncStatus status, @Param("reason") String reason,
+                      @Param("nextAttemptAt") Instant nextAttemptAt, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE SyncHistory s SET s.updatedAt = :now WHERE s.id IN :ids AND s.status = :status")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("status") SyncStatus status, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE SyncHistory s SET s.rowsProcessed = :processed, s.rowsFailed = :failed, s.updatedAt = :now WHERE s.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("processed") long processed, @Param("failed") long failed,
+                       @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE SyncHistory s SET s.status = :status, s.failureReason = :reason, s.completedAt = :now, s.updatedAt = :now "
+            + "WHERE s.id = :id")
+    int updateOutcome(@Param("id") Long id, @Param("status") SyncStatus status, @Param("reason") String reason,
+                      @Param("now") Instant now);
 }
 
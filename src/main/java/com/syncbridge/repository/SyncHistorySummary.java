@@ -0,0 +1,48 @@
+package com.syncbridge.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import com.syncbridge.entity.SyncMode;
+import com.syncbridge.entity.SyncStatus;
+
+/**
+ * Listing projection of a sync history row: outcome, progress and payload metadata, without the payload.
+ */
+public interface SyncHistorySummary {
+    Long getId();
+
+    SyncStatus getStatus();
+
+    String getFailureReason();
+
+    Integer getRetries();
+
+    String getModel();
+
+    SyncMode getMode();
+
+    Long getRowsProcessed();
+
+    Long getRowsFailed();
+
+    Long getPayloadSize();
+
+    Integer getPayloadRows();
+
+    String getPayloadHash();
+
+    Instant getStartedAt();
+
+    Instant getCompletedAt();
+
+    Instant getCreatedAt();
+
+    default Long getElapsedMillis() {
+        if (getStartedAt() == null) {
+            return null;
+        }
+        Instant end = getCompletedAt() != null ? getCompletedAt() : Instant.now();
+        return Duration.between(getStartedAt(), end).toMillis();
+    }
+}
@@ -0,0 +1,18 @@
+package com.syncbridge.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.syncbridge.entity.SyncPayload;
+
+public interface SyncPayloadRepository extends JpaRepository<SyncPayload, Long> {
+
+    /**
+     * Replaces a stored payload without reading the old one.
+     */
+    @Modifying
+    @Query("UPDATE SyncPayload p SET p.data = :data WHERE p.id = :id")
+    int updateData(@Param("id") Long id, @Param("data") byte[] data);
+}
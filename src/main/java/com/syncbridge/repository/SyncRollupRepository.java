@@ -0,0 +1,20 @@
+package com.syncbridge.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.syncbridge.entity.RollupGranularity;
+import com.syncbridge.entity.SyncRollup;
+
+public interface SyncRollupRepository extends JpaRepository<SyncRollup, Long> {
+    List<SyncRollup> findByGranularityAndBucketStartIn(RollupGranularity granularity, Collection<Instant> bucketStarts);
+
+    List<SyncRollup> findByGranularityAndBucketStartBetweenOrderByBucketStartAscModelAsc(
+            RollupGranularity granularity, Instant from, Instant to);
+
+    List<SyncRollup> findByGranularityAndModelAndBucketStartBetweenOrderByBucketStartAsc(
+            RollupGranularity granularity, String model, Instant from, Instant to);
+}
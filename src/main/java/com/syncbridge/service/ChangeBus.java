@@ -0,0 +1,369 @@
+package com.syncbridge.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.syncbridge.entity.Employee;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Fans committed entity changes out to subscription streams. Every {@link EntityChangedEvent} is queued and
+ * dispatched on one background thread, so a commit never waits on subscribers; if the queue is full the event
+ * is dropped and counted. The dispatcher only filters and buffers: handing an event to a subscriber runs its
+ * GraphQL selection and encoding, so that happens on {@code app.changes.delivery-threads} delivery threads.
+ * Events carry no entity state; when a subscriber filters on employee fields, the dispatcher reads the
+ * employees of a whole batch of queued events in one lookup.
+ *
+ * Each subscriber keeps its own buffer of at most {@code app.changes.buffer-size} events, drained only as fast
+ * as its transport asks for more. A slow subscriber therefore costs a bounded amount of memory, and what
+ * happens to events beyond its buffer is its {@link Overflow} policy:
+ * - DROP_OLDEST discards the oldest buffered event
+ * - DROP_LATEST discards the incoming event
+ * - CONFLATE folds the incoming event into a buffered one for the same row, so only the latest state is
+ *   delivered, and otherwise discards the oldest
+ * The GraphQL WebSocket transport prefetches up to 256 messages per subscription on top of this buffer, so the
+ * policy only comes into play once a subscriber is that far behind.
+ *
+ * Metrics:
+ * - change.bus.queue (events waiting to be dispatched)
+ * - change.bus.subscribers (open subscriptions)
+ * - change.bus.buffered (events buffered across all subscribers)
+ * - change.bus.lag (events buffered by the subscriber furthest behind)
+ * - change.bus.delivery (commit to hand-off latency)
+ * - change.bus.dropped (events lost, tagged reason=queue|overflow)
+ * - change.bus.conflated (events folded into a buffered event for the same row)
+ */
+@Service
+public class ChangeBus {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeBus.class);
+    private static final int DISPATCH_BATCH = 512;
+
+    public enum Overflow {
+        DROP_OLDEST, DROP_LATEST, CONFLATE
+    }
+
+    private final BlockingQueue<EntityChangedEvent> queue;
+    private final EmployeeReadCache employeeReadCache;
+    private final Scheduler deliveryScheduler;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Timer delivery;
+    private final Counter queueDropped;
+    private final Counter overflowDropped;
+    private final Counter conflated;
+    private volatile boolean running = true;
+    private Thread dispatcher;
+
+    @Value("${app.changes.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.changes.overflow:drop-oldest}")
+    private Overflow defaultOverflow;
+
+    @Value("${app.changes.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    public ChangeBus(MeterRegistry meterRegistry, EmployeeReadCache employeeReadCache,
+                     @Value("${app.changes.queue-capacity:65536}") int queueCapacity,
+                     @Value("${app.changes.delivery-threads:0}") int deliveryThreads) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.employeeReadCache = employeeReadCache;
+        this.deliveryScheduler = Schedulers.newParallel("change-bus-delivery",
+                deliveryThreads > 0 ? deliveryThreads : Runtime.getRuntime().availableProcessors(), true);
+        Gauge.builder("change.bus.queue", queue, BlockingQueue::size)
+                .description("Entity changes waiting to be dispatched")
+                .register(meterRegistry);
+        Gauge.builder("change.bus.subscribers", subscribers, Set::size)
+                .description("Open change subscriptions")
+                .register(meterRegistry);
+        Gauge.builder("change.bus.buffered", this, bus -> bus.buffered(false))
+                .description("Entity changes buffered across all subscribers")
+                .register(meterRegistry);
+        Gauge.builder("change.bus.lag", this, bus -> bus.buffered(true))
+                .description("Entity changes buffered by the subscriber furthest behind")
+                .register(meterRegistry);
+        this.delivery = Timer.builder("change.bus.delivery")
+                .description("Time from commit to hand-off to a subscriber")
+                .register(meterRegistry);
+        this.queueDropped = Counter.builder("change.bus.dropped").tag("reason", "queue")
+                .description("Entity changes dropped because the dispatch queue was full")
+                .register(meterRegistry);
+        this.overflowDropped = Counter.builder("change.bus.dropped").tag("reason", "overflow")
+                .description("Entity changes dropped from a full subscriber buffer")
+                .register(meterRegistry);
+        this.conflated = Counter.builder("change.bus.conflated")
+                .description("Entity changes folded into a buffered change for the same row")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!queue.offer(event)) {
+            queueDropped.increment();
+        }
+    }
+
+    /**
+     * Changes matching {@code filter} from now on, buffered per {@code overflow} (the configured policy when
+     * null).
+     */
+    public Flux<EntityChangedEvent> subscribe(Filter filter, Overflow overflow) {
+        return Flux.create(sink -> {
+            if (subscribers.size() >= maxSubscribers) {
+                sink.error(new IllegalStateException("Too many change subscribers"));
+                return;
+            }
+            Subscriber subscriber = new Subscriber(filter, overflow == null ? defaultOverflow : overflow, sink);
+            sink.onRequest(n -> subscriber.scheduleDrain());
+            sink.onDispose(() -> subscribers.remove(subscriber));
+            subscribers.add(subscriber);
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = new Thread(this::dispatch, "change-bus");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        dispatcher.interrupt();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.sink.complete();
+        }
+        deliveryScheduler.dispose();
+    }
+
+    private void dispatch() {
+        List<EntityChangedEvent> batch = new ArrayList<>(DISPATCH_BATCH);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, DISPATCH_BATCH - 1);
+            Map<Long, Employee> employees = employees(batch);
+            for (EntityChangedEvent event : batch) {
+                Employee employee = "employees".equals(event.model()) ? employees.get(event.id()) : null;
+                for (Subscriber subscriber : subscribers) {
+                    try {
+                        if (subscriber.filter.test(event, employee)) {
+                            subscriber.offer(event);
+                            subscriber.scheduleDrain();
+                        }
+                    } catch (RuntimeException e) {
+                        logger.error("Failed to dispatch change: model={}, id={}, error={}", event.model(),
+                                event.id(), e.getMessage());
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Current state of the employees in {@code batch}, read only when some subscriber filters on it.
+     */
+    private Map<Long, Employee> employees(List<EntityChangedEvent> batch) {
+        if (subscribers.stream().noneMatch(subscriber -> subscriber.filter.readsEmployee())) {
+            return Map.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (EntityChangedEvent event : batch) {
+            if ("employees".equals(event.model()) && event.type() != EntityChangedEvent.Type.DELETED) {
+                ids.add(event.id());
+            }
+        }
+        Map<Long, Employee> employees = new HashMap<>();
+        try {
+            for (Employee employee : employeeReadCache.findAllById(ids)) {
+                employees.put(employee.getId(), employee);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to read changed employees: count={}, error={}", ids.size(), e.getMessage());
+        }
+        return employees;
+    }
+
+    private int buffered(boolean max) {
+        int total = 0;
+        for (Subscriber subscriber : subscribers) {
+            int size = subscriber.size();
+            total = max ? Math.max(total, size) : total + size;
+        }
+        return total;
+    }
+
+    /**
+     * Server-side subscription filter; null or empty criteria match everything. {@code department} and
+     * {@code company} are matched against the employee row as it is when the change is dispatched, so setting
+     * either one only matches employee creates and updates.
+     */
+    public record Filter(Collection<String> models, Collection<EntityChangedEvent.Type> types, String department,
+                         String company) {
+
+        public Filter {
+            if (models != null) {
+                for (String model : models) {
+                    if (!EntityChangePublisher.MODELS.containsValue(model)) {
+                        throw new IllegalArgumentException("Invalid model: " + model);
+                    }
+                }
+            }
+        }
+
+        boolean readsEmployee() {
+            return department != null || company != null;
+        }
+
+        boolean test(EntityChangedEvent event, Employee employee) {
+            if (models != null && !models.isEmpty() && !models.contains(event.model())) {
+                return false;
+            }
+            if (types != null && !types.isEmpty() && !types.contains(event.type())) {
+                return false;
+            }
+            if (!readsEmployee()) {
+                return true;
+            }
+            return employee != null
+                    && (department == null || department.equalsIgnoreCase(employee.getDepartment()))
+                    && (company == null || company.equalsIgnoreCase(employee.getCompany()));
+        }
+    }
+
+    private final class Subscriber {
+        private final Filter filter;
+        private final Overflow overflow;
+        private final FluxSink<EntityChangedEvent> sink;
+        private final ArrayDeque<Slot> buffer = new ArrayDeque<>();
+        private final Map<String, Slot> byRow = new HashMap<>();
+        private final AtomicInteger drains = new AtomicInteger();
+
+        Subscriber(Filter filter, Overflow overflow, FluxSink<EntityChangedEvent> sink) {
+            this.filter = filter;
+            this.overflow = overflow;
+            this.sink = sink;
+        }
+
+        synchronized void offer(EntityChangedEvent event) {
+            String row = event.model() + ":" + event.id();
+            if (overflow == Overflow.CONFLATE) {
+                Slot pending = byRow.get(row);
+                if (pending != null) {
+                    pending.event = conflate(pending.event, event);
+                    conflated.increment();
+                    return;
+                }
+            }
+            if (buffer.size() >= bufferSize) {
+                overflowDropped.increment();
+                if (overflow == Overflow.DROP_LATEST) {
+                    return;
+                }
+                forget(buffer.poll());
+            }
+            Slot slot = new Slot(row, event);
+            buffer.add(slot);
+            if (overflow == Overflow.CONFLATE) {
+                byRow.put(row, slot);
+            }
+        }
+
+        synchronized EntityChangedEvent poll() {
+            Slot slot = buffer.poll();
+            if (slot == null) {
+                return null;
+            }
+            forget(slot);
+            return slot.event;
+        }
+
+        synchronized int size() {
+            return buffer.size();
+        }
+
+        /**
+         * Hands buffered events to the sink on a delivery thread while it has demand. A call that finds a drain
+         * scheduled or running leaves the work to it.
+         */
+        void scheduleDrain() {
+            if (drains.getAndIncrement() == 0) {
+                deliveryScheduler.schedule(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                    EntityChangedEvent event = poll();
+                    if (event == null) {
+                        break;
+                    }
+                    delivery.record(Duration.between(event.committedAt(), Instant.now()));
+                    sink.next(event);
+                }
+                missed = drains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void forget(Slot slot) {
+            if (slot != null && overflow == Overflow.CONFLATE) {
+                byRow.remove(slot.row, slot);
+            }
+        }
+
+        /**
+         * The latest state wins, but a row created and then updated before delivery is still reported as created.
+         */
+        private static EntityChangedEvent conflate(EntityChangedEvent pending, EntityChangedEvent next) {
+            if (pending.type() == EntityChangedEvent.Type.CREATED && next.type() == EntityChangedEvent.Type.UPDATED) {
+                return new EntityChangedEvent(next.model(), EntityChangedEvent.Type.CREATED, next.id(),
+                        next.committedAt());
+            }
+            return next;
+        }
+    }
+
+    private static final class Slot {
+        private final String row;
+        private EntityChangedEvent event;
+
+        Slot(String row, EntityChangedEvent event) {
+            this.row = row;
+            this.event = event;
+        }
+    }
+}
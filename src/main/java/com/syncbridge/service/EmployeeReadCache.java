@@ -0,0 +1,188 @@
+package com.syncbridge.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.syncbridge.entity.Employee;
+import com.syncbridge.repository.EmployeeRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded read-through cache in front of the GraphQL employee reads. Employees are cached by id (missing ids
+ * too, so repeated lookups of an unknown id stay off the database), and {@code employees} pages are cached as
+ * id lists resolved through the same entries. Both caches evict with Caffeine's W-TinyLFU policy and expire
+ * after {@code app.employees.cache.ttl}.
+ *
+ * Entries are invalidated from employee {@link EntityChangedEvent}s, i.e. after every committed write: an
+ * update drops that employee, a create or delete also drops the cached pages since it shifts page contents.
+ * Each invalidation bumps a generation, recorded per id, and a read is only cached if nothing it covers was
+ * invalidated after it started, so a read that raced a commit is returned but never cached past it. Pages hold
+ * ids only and their rows are read through the employee entries.
+ *
+ * Cached entities are shared between requests and must not be modified; writes load their own copy.
+ *
+ * Metrics: Caffeine's cache.gets, cache.puts, cache.evictions and cache.size, tagged
+ * cache=employees|employee-pages.
+ */
+@Service
+public class EmployeeReadCache {
+    private static final long LOAD_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final EmployeeRepository employeeRepository;
+    private final Cache<Long, Optional<Employee>> employees;
+    private final Cache<PageKey, List<Long>> pages;
+    private final AtomicLong generation = new AtomicLong();
+    // Generation of each id's last invalidation; kept longer than any read is allowed to take
+    private final Cache<Long, Long> invalidated = Caffeine.newBuilder()
+            .expireAfterWrite(2 * LOAD_WINDOW_NANOS, TimeUnit.NANOSECONDS)
+            .build();
+    private volatile long pagesInvalidated;
+
+    public EmployeeReadCache(EmployeeRepository employeeRepository, MeterRegistry meterRegistry,
+                             @Value("${app.employees.cache.max-size:10000}") long maxSize,
+                             @Value("${app.employees.cache.page-max-size:1000}") long pageMaxSize,
+                             @Value("${app.employees.cache.ttl:10m}") Duration ttl) {
+        this.employeeRepository = employeeRepository;
+        this.employees = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(pageMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, employees, "employees");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "employee-pages");
+    }
+
+    public Employee findById(Long id) {
+        return employees.get(id, employeeRepository::findById).orElse(null);
+    }
+
+    /**
+     * Employees with the given ids, in the order of {@code ids}; unknown ids are left out.
+     */
+    public List<Employee> findAllById(List<Long> ids) {
+        Map<Long, Optional<Employee>> found = new HashMap<>(employees.getAllPresent(ids));
+        Set<Long> missing = new LinkedHashSet<>(ids);
+        missing.removeAll(found.keySet());
+        if (!missing.isEmpty()) {
+            long since = generation.get();
+            long start = System.nanoTime();
+            Map<Long, Optional<Employee>> loaded = load(missing);
+            found.putAll(loaded);
+            cache(loaded, since, start);
+        }
+        List<Employee> rows = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            found.getOrDefault(id, Optional.empty()).ifPresent(rows::add);
+        }
+        return rows;
+    }
+
+    /**
+     * {@code limit} employees in id order, skipping the first {@code offset}.
+     */
+    public List<Employee> findPage(int offset, int limit) {
+        PageKey key = new PageKey(offset, limit);
+        List<Long> ids = pages.getIfPresent(key);
+        if (ids == null) {
+            long since = generation.get();
+            // An offset position names the last row already read, not the first one to return.
+            ScrollPosition position = offset == 0 ? ScrollPosition.offset() : ScrollPosition.offset(offset - 1);
+            List<Employee> rows = employeeRepository.findAllBy(position, Sort.by("id"), Limit.of(limit)).getContent();
+            ids = new ArrayList<>(rows.size());
+            for (Employee employee : rows) {
+                ids.add(employee.getId());
+            }
+            if (pagesInvalidated <= since) {
+                pages.put(key, ids);
+                // An invalidation between the check and the put may have missed the new entry
+                if (pagesInvalidated > since) {
+                    pages.invalidate(key);
+                }
+            }
+        }
+        return findAllById(ids);
+    }
+
+    /**
+     * Runs ahead of the other change listeners, so none of them reads the stale entry back.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!"employees".equals(event.model())) {
+            return;
+        }
+        long current = generation.incrementAndGet();
+        invalidated.put(event.id(), current);
+        employees.invalidate(event.id());
+        if (event.type() != EntityChangedEvent.Type.UPDATED) {
+            pagesInvalidated = current;
+            pages.invalidateAll();
+        }
+    }
+
+    /**
+     * Caches rows read from generation {@code since} on, leaving out any invalidated since then. A read that
+     * took longer than the window caches nothing, as its invalidations may have expired.
+     */
+    private void cache(Map<Long, Optional<Employee>> loaded, long since, long start) {
+        if (System.nanoTime() - start > LOAD_WINDOW_NANOS) {
+            return;
+        }
+        for (Map.Entry<Long, Optional<Employee>> entry : loaded.entrySet()) {
+            Long id = entry.getKey();
+            if (!invalidatedSince(id, since)) {
+                employees.put(id, entry.getValue());
+                // An invalidation between the check and the put may have missed the new entry
+                if (invalidatedSince(id, since)) {
+                    employees.invalidate(id);
+                }
+            }
+        }
+    }
+
+    private boolean invalidatedSince(Long id, long since) {
+        Long at = invalidated.getIfPresent(id);
+        return at != null && at > since;
+    }
+
+    private Map<Long, Optional<Employee>> load(Set<Long> ids) {
+        Map<Long, Optional<Employee>> loaded = new HashMap<>();
+        for (Long id : ids) {
+            loaded.put(id, Optional.empty());
+        }
+        for (Employee employee : employeeRepository.findAllById(new ArrayList<Long>(ids))) {
+            loaded.put(employee.getId(), Optional.of(employee));
+        }
+        return loaded;
+    }
+
+    private record PageKey(int offset, int limit) {
+    }
+}
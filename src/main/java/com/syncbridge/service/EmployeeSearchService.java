@@ -0,0 +1,553 @@
+package com.syncbridge.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+
+import com.syncbridge.entity.Employee;
+import com.syncbridge.repository.EmployeeRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Employee search for GraphQL {@code searchEmployees}, served from an in-memory inverted index over
+ * first name, last name and email instead of a {@code LIKE '%term%'} table scan.
+ *
+ * The query is split into terms on anything but letters and digits, and an employee matches when every
+ * term is a prefix of one of its tokens; terms shorter than {@value #MIN_PREFIX} characters must match a
+ * whole token. A query without spaces also matches as a prefix of the full email, and one containing
+ * {@code @} only that way. Matches are ranked: whole tokens beat prefixes, names beat the email local
+ * part, and among prefixes the shorter completion wins. Ties go to the lower id.
+ *
+ * The index is built from the table once the application is ready, then kept current from employee
+ * {@link EntityChangedEvent}s, so rolled-back writes never reach it. Changed ids are queued and re-read from
+ * the table in batches on the index thread, after the build, so the committing thread never waits on the
+ * index. A build that fails is retried with backoff. The queue holds at most
+ * {@code app.employees.search.queue-capacity} ids; when it overflows the index is rebuilt from the table. Until it is built, and for a blank query, searches go to the database: rows are narrowed there by a
+ * {@code LIKE} on the longest term and then checked against the same rules, so they match the same employees,
+ * only in id order.
+ *
+ * Metrics:
+ * - employee.search (query latency, tagged with source=index|database)
+ * - employee.search.index.size (indexed employees)
+ */
+@Service
+public class EmployeeSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeSearchService.class);
+
+    private static final int MIN_PREFIX = 2;
+    private static final int SCAN_BATCH = 500;
+    private static final long BUILD_BACKOFF_MIN_MS = 1000;
+    private static final long BUILD_BACKOFF_MAX_MS = 60000;
+    private static final double NAME_EXACT = 6;
+    private static final double NAME_PREFIX = 4;
+    private static final double LOCAL_EXACT = 3;
+    private static final double LOCAL_PREFIX = 1;
+    private static final Comparator<Map.Entry<Long, Double>> RANKING = Map.Entry.<Long, Double>comparingByValue()
+            .reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeReadCache employeeReadCache;
+    private final Timer indexTimer;
+    private final Timer databaseTimer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Posting> nameTokens = new TreeMap<>();
+    private final TreeMap<String, Posting> localTokens = new TreeMap<>();
+    private final TreeMap<String, Long> emails = new TreeMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final BlockingQueue<Long> changed;
+    private volatile boolean overflowed;
+    private volatile boolean ready;
+
+    @Value("${app.employees.search.index-enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.employees.search.build-batch-size:10000}")
+    private int buildBatchSize;
+
+    public EmployeeSearchService(EmployeeRepository employeeRepository, EmployeeReadCache employeeReadCache,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.employees.search.queue-capacity:100000}") int queueCapacity) {
+        this.employeeRepository = employeeRepository;
+        this.changed = new LinkedBlockingQueue<>(queueCapacity);
+        this.employeeReadCache = employeeReadCache;
+        this.indexTimer = Timer.builder("employee.search").tag("source", "index").register(meterRegistry);
+        this.databaseTimer = Timer.builder("employee.search").tag("source", "database").register(meterRegistry);
+        Gauge.builder("employee.search.index.size", this, EmployeeSearchService::size)
+                .description("Employees in the search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a committed employee write for the index thread. Once the queue is full further ids are dropped
+     * and the index thread rebuilds instead.
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (enabled && "employees".equals(event.model()) && !changed.offer(event.id())) {
+            overflowed = true;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBuild() {
+        if (enabled) {
+            Thread indexer = new Thread(this::run, "employee-search-index");
+            indexer.setDaemon(true);
+            indexer.start();
+        }
+    }
+
+    private void run() {
+        List<Long> ids = new ArrayList<>(buildBatchSize);
+        long backoffMs = BUILD_BACKOFF_MIN_MS;
+        try {
+            while (true) {
+                if (overflowed) {
+                    logger.warn("Employee search queue overflowed, rebuilding the index: capacity={}",
+                            changed.size() + changed.remainingCapacity());
+                    ready = false;
+                    overflowed = false;
+                    changed.clear();
+                }
+                if (!ready) {
+                    try {
+                        build();
+                        backoffMs = BUILD_BACKOFF_MIN_MS;
+                    } catch (RuntimeException e) {
+                        logger.error("Failed to build employee search index: retryInMs={}, error={}", backoffMs,
+                                e.getMessage());
+                        Thread.sleep(backoffMs);
+                        backoffMs = Math.min(backoffMs * 2, BUILD_BACKOFF_MAX_MS);
+                        continue;
+                    }
+                }
+                ids.add(changed.take());
+                changed.drainTo(ids, buildBatchSize - 1);
+                try {
+                    reindex(ids);
+                } catch (RuntimeException e) {
+                    logger.error("Failed to update employee search index: ids={}, error={}", ids.size(),
+                            e.getMessage());
+                }
+                ids.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads every employee into an empty index in keyset batches. Writes committed meanwhile wait in the queue
+     * and are re-read afterwards, so they override whatever the build saw.
+     */
+    private void build() {
+        long start = System.nanoTime();
+        write(() -> {
+            nameTokens.clear();
+            localTokens.clear();
+            emails.clear();
+            docs.clear();
+        });
+        Long afterId = Long.MIN_VALUE;
+        List<Object[]> batch;
+        while (!(batch = employeeRepository.findSearchFieldsAfter(afterId, PageRequest.of(0, buildBatchSize)))
+                .isEmpty()) {
+            List<Object[]> rows = batch;
+            write(() -> rows.forEach(this::add));
+            afterId = (Long) batch.get(batch.size() - 1)[0];
+        }
+        ready = true;
+        logger.info("Built employee search index: employees={}, tokens={}, elapsedMs={}", size(),
+                nameTokens.size() + localTokens.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Re-reads changed employees; ids no longer in the table were deleted.
+     */
+    private void reindex(List<Long> ids) {
+        List<Object[]> rows = employeeRepository.findSearchFieldsIn(ids);
+        write(() -> {
+            Set<Long> deleted = new HashSet<>(ids);
+            for (Object[] row : rows) {
+                add(row);
+                deleted.remove((Long) row[0]);
+            }
+            deleted.forEach(this::remove);
+        });
+    }
+
+    /**
+     * One page of matching employees, best match first.
+     */
+    public List<Employee> search(String query, int offset, int limit) {
+        int safeLimit = limit > 0 ? limit : 10;
+        int safeOffset = Math.max(offset, 0);
+        String normalized = normalize(query);
+        long start = System.nanoTime();
+        if (!ready || normalized.isEmpty()) {
+            List<Employee> rows = scanDatabase(normalized, Long.MIN_VALUE, safeOffset + safeLimit);
+            databaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return rows.subList(Math.min(safeOffset, rows.size()), rows.size());
+        }
+
+        List<Map.Entry<Long, Double>> ranked = rank(normalized, null, safeOffset + safeLimit);
+        List<Long> page = ids(ranked.subList(Math.min(safeOffset, ranked.size()), ranked.size()));
+        List<Employee> rows = employeeReadCache.findAllById(page);
+        indexTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return rows;
+    }
+
+    /**
+     * Up to {@code limit} matching employees after a keyset {@code position}, best match first. Positions from
+     * the index carry the {@code score} and {@code id} of the last match seen, so a page never repeats or skips
+     * a match when earlier results change. Until the index is built the database is paged by {@code id} alone.
+     */
+    public Window<Employee> scroll(String query, KeysetScrollPosition position, int limit) {
+        String normalized = normalize(query);
+        Map<String, Object> keys = position.getKeys();
+        Long afterId = keys.get("id") instanceof Number id ? id.longValue() : null;
+        long start = System.nanoTime();
+        if (!ready || normalized.isEmpty()) {
+            List<Employee> rows = scanDatabase(normalized, afterId == null ? Long.MIN_VALUE : afterId, limit + 1);
+            databaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            List<Employee> page = rows.subList(0, Math.min(limit, rows.size()));
+            return Window.from(page, i -> ScrollPosition.forward(Map.of("id", page.get(i).getId())),
+                    rows.size() > limit);
+        }
+
+        Map.Entry<Long, Double> after = afterId != null && keys.get("score") instanceof Number score
+                ? Map.entry(afterId, score.doubleValue()) : null;
+        List<Map.Entry<Long, Double>> ranked = rank(normalized, after, limit + 1);
+        List<Map.Entry<Long, Double>> top = ranked.subList(0, Math.min(limit, ranked.size()));
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<Long, Double> entry : top) {
+            scores.put(entry.getKey(), entry.getValue());
+        }
+        List<Employee> page = employeeReadCache.findAllById(ids(top));
+        indexTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return Window.from(page, i -> {
+            Long id = page.get(i).getId();
+            return ScrollPosition.forward(Map.of("score", scores.get(id), "id", id));
+        }, ranked.size() > limit);
+    }
+
+    /**
+     * Up to {@code limit} matches in id order after {@code afterId}, read from the table in keyset batches. The
+     * {@code LIKE} filter only narrows the scan; every row it returns is checked with {@link #matches}.
+     */
+    private List<Employee> scanDatabase(String query, long afterId, int limit) {
+        String filter = filterTerm(query);
+        List<Employee> rows = new ArrayList<>(limit);
+        List<Employee> batch;
+        do {
+            batch = employeeRepository.searchEmployeesAfter(filter, afterId, Limit.of(SCAN_BATCH));
+            for (Employee employee : batch) {
+                if (query.isEmpty() || matches(doc(employee.getFirstName(), employee.getLastName(),
+                        employee.getEmail()), query)) {
+                    rows.add(employee);
+                    if (rows.size() == limit) {
+                        return rows;
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == SCAN_BATCH);
+        return rows;
+    }
+
+    /**
+     * A substring every match contains: the longest term, or the whole query when it can only match the email.
+     */
+    private static String filterTerm(String query) {
+        if (query.indexOf('@') >= 0) {
+            return query;
+        }
+        return tokenize(query).stream().max(Comparator.comparingInt(String::length)).orElse(query);
+    }
+
+    /**
+     * Whether the index would return {@code doc} for {@code query}; mirrors {@link #rank} without scoring.
+     */
+    private static boolean matches(Doc doc, String query) {
+        if (query.length() >= MIN_PREFIX && query.chars().noneMatch(Character::isWhitespace)
+                && doc.email() != null && doc.email().startsWith(query)) {
+            return true;
+        }
+        Set<String> terms = tokenize(query);
+        if (query.indexOf('@') >= 0 || terms.isEmpty()) {
+            return false;
+        }
+        for (String term : terms) {
+            if (!matchesToken(doc.names(), term) && !matchesToken(doc.local(), term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesToken(String[] tokens, String term) {
+        for (String token : tokens) {
+            if (term.length() < MIN_PREFIX ? token.equals(term) : token.startsWith(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The {@code k} best matches ranked strictly after {@code after} (from the top when null), in ranking order.
+     */
+    private List<Map.Entry<Long, Double>> rank(String query, Map.Entry<Long, Double> after, int k) {
+        Map<Long, Double> scores;
+        lock.readLock().lock();
+        try {
+            scores = query.indexOf('@') >= 0 ? new HashMap<>() : matchTerms(query);
+            if (query.length() >= MIN_PREFIX && query.chars().noneMatch(Character::isWhitespace)) {
+                matchEmail(query, scores);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(k + 1, RANKING.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (after != null && RANKING.compare(entry, after) <= 0) {
+                continue;
+            }
+            best.offer(entry);
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> top = new ArrayList<>(best);
+        top.sort(RANKING);
+        return top;
+    }
+
+    private static List<Long> ids(List<Map.Entry<Long, Double>> entries) {
+        List<Long> ids = new ArrayList<>(entries.size());
+        for (Map.Entry<Long, Double> entry : entries) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    private static String normalize(String query) {
+        return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void matchEmail(String query, Map<Long, Double> into) {
+        for (Map.Entry<String, Long> entry : prefixRange(emails, query).entrySet()) {
+            into.merge(entry.getValue(), score(query, entry.getKey(), NAME_EXACT, NAME_PREFIX), Math::max);
+        }
+    }
+
+    /**
+     * Scores employees matching every term. The longest (most selective) term goes first so later terms
+     * only probe the surviving candidates.
+     */
+    private Map<Long, Double> matchTerms(String query) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        terms.sort(Comparator.comparingInt(String::length).reversed());
+        Map<Long, Double> scores = null;
+        for (String term : terms) {
+            Map<Long, Double> termScores = new HashMap<>();
+            match(nameTokens, term, NAME_EXACT, NAME_PREFIX, scores, termScores);
+            match(localTokens, term, LOCAL_EXACT, LOCAL_PREFIX, scores, termScores);
+            if (scores != null) {
+                Map<Long, Double> previous = scores;
+                termScores.replaceAll((id, score) -> score + previous.get(id));
+            }
+            scores = termScores;
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores == null ? new HashMap<>() : scores;
+    }
+
+    private static void match(TreeMap<String, Posting> tokens, String term, double exact, double prefix,
+                              Map<Long, Double> candidates, Map<Long, Double> into) {
+        SortedMap<String, Posting> range = term.length() < MIN_PREFIX
+                ? tokens.subMap(term, true, term, true) : prefixRange(tokens, term);
+        for (Map.Entry<String, Posting> entry : range.entrySet()) {
+            double score = score(term, entry.getKey(), exact, prefix);
+            Posting posting = entry.getValue();
+            for (int i = 0; i < posting.size; i++) {
+                long id = posting.ids[i];
+                if (candidates == null || candidates.containsKey(id)) {
+                    into.merge(id, score, Math::max);
+                }
+            }
+        }
+    }
+
+    private static <V> SortedMap<String, V> prefixRange(TreeMap<String, V> map, String prefix) {
+        return map.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    private static double score(String term, String token, double exact, double prefix) {
+        return token.length() == term.length() ? exact : prefix + (double) term.length() / token.length();
+    }
+
+    private static Set<String> tokenize(String... values) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            String lower = value.toLowerCase(Locale.ROOT);
+            int start = -1;
+            for (int i = 0; i <= lower.length(); i++) {
+                boolean separator = i == lower.length() || !Character.isLetterOrDigit(lower.charAt(i));
+                if (separator && start >= 0) {
+                    tokens.add(lower.substring(start, i));
+                    start = -1;
+                } else if (!separator && start < 0) {
+                    start = i;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Indexes an {@code [id, firstName, lastName, email]} row.
+     */
+    private void add(Object[] row) {
+        add((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+    }
+
+    private void add(Long id, String firstName, String lastName, String email) {
+        remove(id);
+        Doc doc = doc(firstName, lastName, email);
+        for (String token : doc.names()) {
+            nameTokens.computeIfAbsent(token, t -> new Posting()).add(id);
+        }
+        for (String token : doc.local()) {
+            localTokens.computeIfAbsent(token, t -> new Posting()).add(id);
+        }
+        if (doc.email() != null) {
+            emails.put(doc.email(), id);
+        }
+        docs.put(id, doc);
+    }
+
+    private static Doc doc(String firstName, String lastName, String email) {
+        String lowerEmail = email == null ? null : email.toLowerCase(Locale.ROOT);
+        int at = lowerEmail == null ? -1 : lowerEmail.indexOf('@');
+        String local = at < 0 ? lowerEmail : lowerEmail.substring(0, at);
+        return new Doc(tokenize(firstName, lastName).toArray(String[]::new), tokenize(local).toArray(String[]::new),
+                lowerEmail);
+    }
+
+    private void remove(Long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String token : doc.names()) {
+            unpost(nameTokens, token, id);
+        }
+        for (String token : doc.local()) {
+            unpost(localTokens, token, id);
+        }
+        if (doc.email() != null) {
+            emails.remove(doc.email(), id);
+        }
+    }
+
+    private static void unpost(TreeMap<String, Posting> tokens, String token, long id) {
+        Posting posting = tokens.get(token);
+        if (posting != null && posting.remove(id)) {
+            tokens.remove(token);
+        }
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Doc(String[] names, String[] local, String email) {
+    }
+
+    /**
+     * Sorted ids of the employees carrying one token.
+     */
+    private static final class Posting {
+        private long[] ids = new long[2];
+        private int size;
+
+        void add(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0) {
+                return;
+            }
+            i = -i - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, i, ids, i + 1, size - i);
+            ids[i] = id;
+            size++;
+        }
+
+        /**
+         * Removes {@code id} and tells whether the posting is now empty.
+         */
+        boolean remove(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0) {
+                System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                size--;
+            }
+            return size == 0;
+        }
+    }
+}
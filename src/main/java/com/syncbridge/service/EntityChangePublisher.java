@@ -0,0 +1,112 @@
+package com.syncbridge.service;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.syncbridge.entity.Customer;
+import com.syncbridge.entity.Employee;
+import com.syncbridge.entity.Order;
+import com.syncbridge.entity.Product;
+import com.syncbridge.service.EntityChangedEvent.Type;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Publishes an {@link EntityChangedEvent} for every committed write to the synced models (sync, retry, GraphQL
+ * mutations), exactly once and never for a rolled-back one. Writes are noted as Hibernate flushes them and
+ * published from the session's after-completion hook, on the committing thread once the commit succeeded. Only
+ * model, type and id are kept until then: Hibernate's post-commit listeners would instead pin every written
+ * entity and its state until commit, which {@code session.clear()} does not release. Order items are written
+ * with their order and are reported as a change to it.
+ */
+@Component
+public class EntityChangePublisher implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    static final Map<Class<?>, String> MODELS = Map.of(
+            Employee.class, "employees",
+            Customer.class, "customers",
+            Product.class, "products",
+            Order.class, "orders");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EntityChangePublisher(EntityManagerFactory entityManagerFactory,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getSession(), Type.CREATED, event.getId(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getSession(), Type.UPDATED, event.getId(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), Type.DELETED, event.getId(), event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, Type type, Object id, Object entity) {
+        String model = MODELS.get(entity.getClass());
+        if (model != null) {
+            session.getActionQueue().registerProcess(new Change(model, type, (Long) id));
+        }
+    }
+
+    private final class Change implements AfterTransactionCompletionProcess {
+        private final String model;
+        private final Type type;
+        private final Long id;
+
+        Change(String model, Type type, Long id) {
+            this.model = model;
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            if (success) {
+                eventPublisher.publishEvent(new EntityChangedEvent(model, type, id, Instant.now()));
+            }
+        }
+    }
+}
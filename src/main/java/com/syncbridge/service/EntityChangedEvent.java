@@ -0,0 +1,15 @@
+package com.syncbridge.service;
+
+import java.time.Instant;
+
+/**
+ * A committed write to one of the synced models, published by {@link EntityChangePublisher} once the
+ * transaction that made it has committed. Only the row's identity is carried, so listeners that need its state
+ * read the committed row themselves.
+ */
+public record EntityChangedEvent(String model, Type type, Long id, Instant committedAt) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
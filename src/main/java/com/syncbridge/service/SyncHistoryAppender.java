@@ -0,0 +1,171 @@
+package com.syncbridge.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.syncbridge.entity.SyncHistory;
+import com.syncbridge.entity.SyncStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Writes finished sync history off the request path. Records are queued with their final status and
+ * payload, and a background flush inserts them in batches of {@code app.sync.history.batch-size}, one
+ * transaction per batch, so neither the history row nor the payload LOB is written inside the sync's
+ * own transaction. When the queue is full the caller writes its record synchronously instead of
+ * dropping it. A batch that fails to write is retried once and then written record by record, so one bad
+ * record cannot take the rest of its batch down; a record that still fails is logged with its identifying
+ * fields and counted as dropped. The queue is drained on graceful shutdown.
+ *
+ * History is therefore best-effort for up to {@code app.sync.history.flush-interval-ms}: records still
+ * queued when the process crashes are lost, along with the payloads a retry would replay.
+ *
+ * Metrics:
+ * - sync.history.append.queue (records waiting to be written)
+ * - sync.history.append.flush (batch write latency)
+ * - sync.history.append.overflow (records written synchronously because the queue was full)
+ * - sync.history.append.retried (records rewritten after a failed batch write)
+ * - sync.history.append.dropped (records that could not be written at all)
+ */
+@Component
+public class SyncHistoryAppender {
+    private static final Logger logger = LoggerFactory.getLogger(SyncHistoryAppender.class);
+
+    private final SyncHistoryService syncHistoryService;
+    private final BlockingQueue<Entry> queue;
+    private final Timer flushTimer;
+    private final Counter overflow;
+    private final Counter retried;
+    private final Counter dropped;
+
+    @Value("${app.sync.history.batch-size:100}")
+    private int batchSize;
+
+    public SyncHistoryAppender(SyncHistoryService syncHistoryService, MeterRegistry meterRegistry,
+                               @Value("${app.sync.history.queue-capacity:10000}") int queueCapacity) {
+        this.syncHistoryService = syncHistoryService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("sync.history.append.queue", queue, BlockingQueue::size)
+                .description("Sync history records waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("sync.history.append.flush")
+                .description("Latency of one batched sync history write")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("sync.history.append.overflow")
+                .description("Sync history records written synchronously because the queue was full")
+                .register(meterRegistry);
+        this.retried = Counter.builder("sync.history.append.retried")
+                .description("Sync history records rewritten after a failed batch write")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("sync.history.append.dropped")
+                .description("Sync history records that could not be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a finished history record together with the payload to store for it.
+     */
+    public void append(SyncHistory sh, Object payload) {
+        if (!queue.offer(new Entry(sh, payload))) {
+            overflow.increment();
+            syncHistoryService.createAll(List.of(sh), List.of(payload));
+        }
+    }
+
+    /**
+     * Queues the record once the current transaction completes, or right away outside a transaction.
+     * A record that claims success for a transaction that then rolled back is stored as FAILED.
+     */
+    public void appendOnCompletion(SyncHistory sh, Object payload) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(sh, payload);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED && sh.getStatus() == SyncStatus.SUCCESSFUL) {
+                    sh.setStatus(SyncStatus.FAILED);
+                    sh.setFailureReason("Transaction rolled back");
+                    sh.setCompletedAt(Instant.now());
+                }
+                append(sh, payload);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.sync.history.flush-interval-ms:200}")
+    public void flush() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to write sync history batch, retrying: count={}, error={}", batch.size(),
+                        e.getMessage());
+                retried.increment(batch.size());
+                rewrite(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Retries a failed batch once, then falls back to one transaction per record.
+     */
+    private void rewrite(List<Entry> batch) {
+        try {
+            write(batch);
+            return;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to rewrite sync history batch, writing records one by one: count={}, error={}",
+                    batch.size(), e.getMessage());
+        }
+        for (Entry entry : batch) {
+            try {
+                write(List.of(entry));
+            } catch (RuntimeException e) {
+                SyncHistory sh = entry.history();
+                dropped.increment();
+                logger.error("Failed to write sync history: model={}, status={}, mode={}, startedAt={}, "
+                                + "rowsProcessed={}, rowsFailed={}, error={}", sh.getModel(), sh.getStatus(),
+                        sh.getMode(), sh.getStartedAt(), sh.getRowsProcessed(), sh.getRowsFailed(), e.getMessage());
+            }
+        }
+    }
+
+    private void write(List<Entry> entries) {
+        List<SyncHistory> histories = new ArrayList<>(entries.size());
+        List<Object> payloads = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            // A rolled-back attempt leaves its sequence id behind, which would turn the insert into a merge
+            entry.history().setId(null);
+            histories.add(entry.history());
+            payloads.add(entry.payload());
+        }
+        flushTimer.record(() -> syncHistoryService.createAll(histories, payloads));
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private record Entry(SyncHistory history, Object payload) {
+    }
+}
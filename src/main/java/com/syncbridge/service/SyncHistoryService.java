@@ -1,63 +1,300 @@
 package com.syncbridge.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.syncbridge.entity.SyncHistory;
+import com.syncbridge.entity.SyncMode;
+import com.syncbridge.entity.SyncPayload;
 import com.syncbridge.entity.SyncStatus;
+import com.syncbridge.exception.ApiException;
 import com.syncbridge.repository.SyncHistoryRepository;
+import com.syncbridge.repository.SyncHistorySummary;
+import com.syncbridge.repository.SyncPayloadRepository;
+import com.syncbridge.util.ContentHash;
+import com.syncbridge.util.PayloadCodec;
 
 @Service
 public class SyncHistoryService {
+    private static final Instant CURSOR_START = Instant.parse("9999-12-31T23:59:59Z");
+
     private final SyncHistoryRepository repository;
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final SyncPayloadRepository payloadRepository;
+    private final SyncStatsTracker statsTracker;
+    private final ObjectMapper mapper;
+    private final Set<Long> held = ConcurrentHashMap.newKeySet();
 
-    public SyncHistoryService(SyncHistoryRepository repository) {
+    public SyncHistoryService(SyncHistoryRepository repository, SyncPayloadRepository payloadRepository,
+                              SyncStatsTracker statsTracker, ObjectMapper mapper) {
         this.repository = repository;
+        this.payloadRepository = payloadRepository;
+        this.statsTracker = statsTracker;
+        this.mapper = mapper;
     }
 
     @Transactional
     public SyncHistory createPending(Object payload) {
         SyncHistory sh = new SyncHistory();
-        try {
-            sh.setPayload(mapper.writeValueAsString(payload));
-        } catch (Exception e) {
-            sh.setPayload("{}");
-        }
         sh.setStatus(SyncStatus.PENDING_RETRY);
-        return repository.save(sh);
+        return create(sh, payload);
+    }
+
+    @Transactional
+    public SyncHistory createQueued(String model, Object payload, SyncMode mode) {
+        SyncHistory sh = new SyncHistory();
+        sh.setModel(model);
+        sh.setMode(mode);
+        sh.setStatus(SyncStatus.PROCESSING);
+        sh.setStartedAt(Instant.now());
+        return create(sh, payload);
+    }
+
+    /**
+     * Saves a new history row along with its payload. The payload is stored compressed in
+     * sync_payloads; the history row only keeps its size, row count and hash.
+     */
+    @Transactional
+    public SyncHistory create(SyncHistory sh, Object payload) {
+        byte[] data = encodePayload(sh, payload);
+        SyncHistory saved = repository.save(sh);
+        payloadRepository.save(new SyncPayload(saved, data));
+        statsTracker.record(saved.getModel(), null, saved.getStatus());
+        return saved;
+    }
+
+    /**
+     * Saves finished history rows with their payloads in one transaction; {@code payloads} is parallel
+     * to {@code histories}. Used by {@link SyncHistoryAppender} to write records in batches. The rows are
+     * flushed before the in-memory status counters move, so a failed write can be retried without
+     * counting its records twice.
+     */
+    @Transactional
+    public void createAll(List<SyncHistory> histories, List<?> payloads) {
+        List<byte[]> data = new ArrayList<>(histories.size());
+        for (int i = 0; i < histories.size(); i++) {
+            data.add(encodePayload(histories.get(i), payloads.get(i)));
+        }
+        List<SyncHistory> saved = repository.saveAll(histories);
+        List<SyncPayload> rows = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            rows.add(new SyncPayload(saved.get(i), data.get(i)));
+        }
+        payloadRepository.saveAllAndFlush(rows);
+        for (SyncHistory sh : saved) {
+            statsTracker.record(sh.getModel(), null, sh.getStatus());
+        }
+    }
+
+    /**
+     * Returns the stored payload JSON of a history row.
+     */
+    @Transactional(readOnly = true)
+    public String loadPayload(Long id) {
+        SyncPayload payload = payloadRepository.findById(id)
+                .orElseThrow(() -> new ApiException(404, "Sync payload not found"));
+        return new String(PayloadCodec.decompress(payload.getData()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Publishes job progress in its own transaction so pollers see it while the
+     * job's data transaction is still open.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordProgress(Long id, long processed, long failed) {
+        repository.updateProgress(id, processed, failed, Instant.now());
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markSuccess(Long id, String model) {
+        repository.updateOutcome(id, SyncStatus.SUCCESSFUL, null, Instant.now());
+        statsTracker.record(model, SyncStatus.PROCESSING, SyncStatus.SUCCESSFUL);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markFailure(Long id, String model, String reason) {
+        repository.updateOutcome(id, SyncStatus.FAILED, SyncHistory.truncateReason(reason), Instant.now());
+        statsTracker.record(model, SyncStatus.PROCESSING, SyncStatus.FAILED);
+    }
+
+    /**
+     * Claims up to {@code limit} due PENDING_RETRY rows by moving them to PROCESSING under a row
+     * lock, and counts the attempt. The claim commits before any replay starts.
+     */
+    @Transactional
+    public List<SyncHistory> claimForRetry(int limit) {
+        Instant now = Instant.now();
+        List<SyncHistory> due = repository.findDueForRetry(SyncStatus.PENDING_RETRY, now, PageRequest.of(0, limit));
+        for (SyncHistory sh : due) {
+            statsTracker.record(sh.getModel(), sh.getStatus(), SyncStatus.PROCESSING);
+            sh.setStatus(SyncStatus.PROCESSING);
+            sh.setRetries(sh.getRetries() + 1);
+            sh.setStartedAt(now);
+            sh.setCompletedAt(null);
+            sh.setNextAttemptAt(null);
+            sh.setFailureReason(null);
+            sh.setRolledUp(false);
+        }
+        return due;
+    }
+
+    /**
+     * Marks a PROCESSING row as owned by a live task in this process, so {@link #renewLeases} keeps it from
+     * being reclaimed. Owners release it with {@link #release} once the row has its outcome.
+     */
+    public void hold(Long id) {
+        held.add(id);
+    }
+
+    public void release(Long id) {
+        held.remove(id);
+    }
+
+    /**
+     * Renews the lease of every row held in this process by bumping its {@code updatedAt}. Progress updates
+     * renew it too, so only queued jobs and long chunks depend on this.
+     */
+    @Scheduled(fixedDelayString = "${app.sync.lease.renew-interval-ms:60000}")
+    @Transactional
+    public void renewLeases() {
+        if (!held.isEmpty()) {
+            repository.renewLeases(List.copyOf(held), SyncStatus.PROCESSING, Instant.now());
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} PROCESSING rows whose lease expired before {@code staleBefore} to
+     * PENDING_RETRY, e.g. after the process running them crashed. Returns how many were reclaimed.
+     */
+    @Transactional
+    public int reclaimExpired(Instant staleBefore, int limit) {
+        List<SyncHistory> expired = repository.findLeaseExpired(SyncStatus.PROCESSING, staleBefore,
+                PageRequest.of(0, limit));
+        int reclaimed = 0;
+        for (SyncHistory sh : expired) {
+            if (held.contains(sh.getId())) {
+                continue;
+            }
+            statsTracker.record(sh.getModel(), sh.getStatus(), SyncStatus.PENDING_RETRY);
+            sh.setStatus(SyncStatus.PENDING_RETRY);
+            sh.setNextAttemptAt(null);
+            sh.setFailureReason("Lease expired while processing");
+            reclaimed++;
+        }
+        return reclaimed;
+    }
+
+    /**
+     * Stores {@code payload} in place of a row's current payload, e.g. only the rows a retry still has to
+     * replay.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void replacePayload(Long id, Object payload) {
+        SyncHistory sh = repository.findById(id).orElseThrow(() -> new ApiException(404, "Sync history not found"));
+        payloadRepository.updateData(id, encodePayload(sh, payload));
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void scheduleRetry(Long id, String model, String reason, Instant nextAttemptAt) {
+        repository.scheduleRetry(id, SyncStatus.PENDING_RETRY, SyncHistory.truncateReason(reason), nextAttemptAt,
+                Instant.now());
+        statsTracker.record(model, SyncStatus.PROCESSING, SyncStatus.PENDING_RETRY);
     }
 
     @Transactional
     public void markSuccess(SyncHistory sh) {
+        statsTracker.record(sh.getModel(), sh.getStatus(), SyncStatus.SUCCESSFUL);
         sh.setStatus(SyncStatus.SUCCESSFUL);
         repository.save(sh);
     }
 
     @Transactional
     public void markFailure(SyncHistory sh, String reason) {
+        statsTracker.record(sh.getModel(), sh.getStatus(), SyncStatus.FAILED);
         sh.setStatus(SyncStatus.FAILED);
         sh.setFailureReason(reason);
         repository.save(sh);
     }
 
+    /**
+     * One keyset page of history summaries, newest first. {@code cursor} is the opaque {@code next}
+     * value returned with the previous page; {@code next} is null once the last page is reached.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> listPage(SyncStatus status, String cursor, int size) {
+        Instant createdAt = CURSOR_START;
+        long id = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split(",", 2);
+                createdAt = Instant.parse(position[0]);
+                id = Long.parseLong(position[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new ApiException(400, "Invalid cursor");
+            }
+        }
+
+        // One extra row tells whether another page follows without a COUNT query
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<SyncHistorySummary> rows = status == null
+                ? repository.findPageAfter(createdAt, id, limit)
+                : repository.findPageAfterByStatus(status, createdAt, id, limit);
+        List<SyncHistorySummary> items = rows.size() > size ? rows.subList(0, size) : rows;
+        String next = null;
+        if (rows.size() > size) {
+            SyncHistorySummary last = items.get(size - 1);
+            next = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((last.getCreatedAt() + "," + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", items);
+        page.put("size", items.size());
+        page.put("next", next);
+        return page;
+    }
+
+    /**
+     * Serializes and compresses a payload, recording its size, row count and hash on {@code sh}.
+     */
+    private byte[] encodePayload(SyncHistory sh, Object payload) {
+        byte[] raw;
+        try {
+            raw = mapper.writeValueAsBytes(payload);
+        } catch (Exception e) {
+            raw = "{}".getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] data = PayloadCodec.compress(raw);
+        sh.setPayloadSize((long) raw.length);
+        sh.setPayloadStoredSize((long) data.length);
+        sh.setPayloadRows(payload instanceof Collection<?> rows ? rows.size() : null);
+        sh.setPayloadHash(ContentHash.sha256(raw));
+        return data;
+    }
+
     public Map<String, Integer> aggregateStats() {
-        List<Object[]> raw = repository.countByStatus();
         Map<String, Integer> stats = new HashMap<>();
-        stats.put("successful", 0);
-        stats.put("failed", 0);
-        stats.put("invalid", 0);
-        stats.put("pending_retry", 0);
         int total = 0;
-        for (Object[] row : raw) {
-            String status = String.valueOf(row[0]);
-            int cnt = ((Number) row[1]).intValue();
-            stats.put(status, cnt);
+        for (Map.Entry<SyncStatus, Long> entry : statsTracker.totals().entrySet()) {
+            int cnt = entry.getValue().intValue();
+            stats.put(entry.getKey().getValue(), cnt);
             total += cnt;
         }
         stats.put("total", total);
@@ -0,0 +1,63 @@
+package com.syncbridge.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.syncbridge.entity.SyncHistory;
+import com.syncbridge.entity.SyncMode;
+import com.syncbridge.exception.ApiException;
+
+/**
+ * Runs syncs in the background on the bounded {@code syncJobExecutor}. The caller gets the
+ * SyncHistory id back immediately and polls {@code /api/v1/sync-history/{id}} for progress.
+ * The job's PROCESSING row is held from submission until its outcome is recorded, so its lease is
+ * renewed while it waits in the queue; if the process dies first, the retry worker reclaims it.
+ */
+@Service
+public class SyncJobService {
+    private static final Logger logger = LoggerFactory.getLogger(SyncJobService.class);
+
+    private final SyncService syncService;
+    private final SyncHistoryService syncHistoryService;
+    private final ThreadPoolTaskExecutor syncJobExecutor;
+
+    public SyncJobService(SyncService syncService, SyncHistoryService syncHistoryService,
+                          ThreadPoolTaskExecutor syncJobExecutor) {
+        this.syncService = syncService;
+        this.syncHistoryService = syncHistoryService;
+        this.syncJobExecutor = syncJobExecutor;
+    }
+
+    public SyncHistory submit(String model, List<?> data, SyncMode mode) {
+        if (!syncService.supports(model)) {
+            throw new ApiException(400, "Invalid model: " + model);
+        }
+        SyncHistory job = syncHistoryService.createQueued(model, data, mode);
+        Long jobId = job.getId();
+        syncHistoryService.hold(jobId);
+        try {
+            syncJobExecutor.execute(() -> run(jobId, model, data, mode));
+        } catch (TaskRejectedException e) {
+            syncHistoryService.markFailure(jobId, model, "Rejected: sync job queue is full");
+            syncHistoryService.release(jobId);
+            throw new ApiException(503, "Sync job queue is full, retry later");
+        }
+        return job;
+    }
+
+    private void run(Long jobId, String model, List<?> data, SyncMode mode) {
+        try {
+            syncService.runJob(jobId, model, data, mode);
+        } catch (Exception e) {
+            logger.error("Sync job failed: id={}, model={}, error={}", jobId, model, e.getMessage());
+            syncHistoryService.markFailure(jobId, model, e.getMessage());
+        } finally {
+            syncHistoryService.release(jobId);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.syncbridge.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.syncbridge.entity.SyncHistory;
+import com.syncbridge.entity.SyncPayload;
+import com.syncbridge.entity.SyncStatus;
+import com.syncbridge.repository.SyncHistoryRepository;
+import com.syncbridge.repository.SyncPayloadRepository;
+import com.syncbridge.util.PayloadCodec;
+
+/**
+ * Purges sync history older than a per-status TTL ({@code app.sync.retention.*-ttl}; statuses without
+ * a TTL are kept). Rows go in bounded batches, each deleted by id in its own short transaction so no
+ * entity is loaded for removal. With archiving on, each batch is first written with its payloads to a
+ * gzip-compressed NDJSON file under {@code app.sync.retention.archive-dir}/{status}/{date}/. The archive is
+ * written before the delete transaction opens, one stored payload at a time, and payloads are streamed
+ * from their gzip form into the file rather than parsed, so large payloads never sit in memory or in a
+ * transaction. Rows not yet folded into sync_rollups are left for a later run.
+ */
+@Service
+@ConditionalOnProperty(name = "app.sync.retention.enabled", havingValue = "true")
+public class SyncRetentionService {
+    private static final Logger logger = LoggerFactory.getLogger(SyncRetentionService.class);
+
+    private final SyncHistoryRepository historyRepository;
+    private final SyncPayloadRepository payloadRepository;
+    private final SyncStatsTracker statsTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper mapper;
+    private final Map<SyncStatus, Duration> ttls = new EnumMap<>(SyncStatus.class);
+
+    @Value("${app.sync.retention.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.sync.retention.archive:true}")
+    private boolean archive;
+
+    @Value("${app.sync.retention.archive-dir:archive/sync-history}")
+    private String archiveDir;
+
+    public SyncRetentionService(SyncHistoryRepository historyRepository, SyncPayloadRepository payloadRepository,
+                                SyncStatsTracker statsTracker, TransactionTemplate transactionTemplate,
+                                ObjectMapper mapper,
+                                @Value("${app.sync.retention.successful-ttl:}") Duration successfulTtl,
+                                @Value("${app.sync.retention.failed-ttl:}") Duration failedTtl,
+                                @Value("${app.sync.retention.invalid-ttl:}") Duration invalidTtl) {
+        this.historyRepository = historyRepository;
+        this.payloadRepository = payloadRepository;
+        this.statsTracker = statsTracker;
+        this.transactionTemplate = transactionTemplate;
+        this.mapper = mapper;
+        if (successfulTtl != null) {
+            ttls.put(SyncStatus.SUCCESSFUL, successfulTtl);
+        }
+        if (failedTtl != null) {
+            ttls.put(SyncStatus.FAILED, failedTtl);
+        }
+        if (invalidTtl != null) {
+            ttls.put(SyncStatus.INVALID, invalidTtl);
+        }
+    }
+
+    @Scheduled(cron = "${app.sync.retention.cron:0 15 * * * *}")
+    public void scheduledPurge() {
+        purge();
+    }
+
+    /**
+     * Runs one retention pass and returns the number of rows removed per status.
+     */
+    public Map<String, Object> purge() {
+        Instant now = Instant.now();
+        Map<String, Object> purged = new HashMap<>();
+        long total = 0;
+        for (Map.Entry<SyncStatus, Duration> ttl : ttls.entrySet()) {
+            SyncStatus status = ttl.getKey();
+            Instant cutoff = now.minus(ttl.getValue());
+            long removed = 0;
+            int batch;
+            do {
+                List<SyncHistory> expired = historyRepository.findExpired(status, cutoff,
+                        PageRequest.of(0, batchSize));
+                batch = expired.size();
+                if (batch > 0) {
+                    removed += purgeBatch(status, expired);
+                }
+            } while (batch == batchSize);
+            purged.put(status.getValue(), removed);
+            total += removed;
+        }
+        purged.put("total", total);
+        if (total > 0) {
+            statsTracker.reconcile();
+            logger.info("Purged sync history: {}", purged);
+        }
+        return purged;
+    }
+
+    private int purgeBatch(SyncStatus status, List<SyncHistory> expired) {
+        if (archive) {
+            writeArchive(status, expired);
+        }
+        List<Long> ids = expired.stream().map(SyncHistory::getId).toList();
+        return transactionTemplate.execute(tx -> historyRepository.deleteByIds(ids, status));
+    }
+
+    /**
+     * Writes one batch as gzip-compressed NDJSON, one history row with its payload per line. The file is
+     * written under a temporary name and moved into place, and the temporary file is removed on failure,
+     * so a partial file is never left behind.
+     */
+    private void writeArchive(SyncStatus status, List<SyncHistory> expired) {
+        SyncHistory first = expired.get(0);
+        Path dir = Paths.get(archiveDir, status.getValue(),
+                first.getCreatedAt().atOffset(ZoneOffset.UTC).toLocalDate().toString());
+        Path target = dir.resolve("sync-history-" + first.getId() + "-" + expired.get(expired.size() - 1).getId()
+                + ".ndjson.gz");
+        Path tmp = null;
+        try {
+            Files.createDirectories(dir);
+            tmp = Files.createTempFile(dir, "sync-history-", ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp));
+                 JsonGenerator generator = mapper.getFactory().createGenerator(out)
+                         .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                         .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)) {
+                generator.setRootValueSeparator(null);
+                for (SyncHistory sh : expired) {
+                    generator.writeStartObject();
+                    Iterator<Map.Entry<String, JsonNode>> fields = mapper.<ObjectNode>valueToTree(sh).fields();
+                    while (fields.hasNext()) {
+                        Map.Entry<String, JsonNode> field = fields.next();
+                        generator.writeFieldName(field.getKey());
+                        generator.writeTree(field.getValue());
+                    }
+                    generator.writeFieldName("payload");
+                    writePayload(sh.getId(), generator, out);
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteTemp(tmp);
+            throw new UncheckedIOException("Failed to archive sync history to " + target, e);
+        } catch (RuntimeException e) {
+            deleteTemp(tmp);
+            throw e;
+        }
+    }
+
+    /**
+     * Copies a stored payload into the current line as raw JSON, decompressing it on the way.
+     */
+    private void writePayload(Long id, JsonGenerator generator, OutputStream out) throws IOException {
+        byte[] stored = payloadRepository.findById(id).map(SyncPayload::getData).orElse(null);
+        if (stored == null) {
+            generator.writeNull();
+            return;
+        }
+        // An empty raw value lets the generator move past the field, then the JSON goes straight to the stream
+        generator.writeRawValue("");
+        generator.flush();
+        PayloadCodec.decompress(stored, out);
+    }
+
+    private static void deleteTemp(Path tmp) {
+        if (tmp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tmp);
+        } catch (IOException e) {
+            logger.warn("Failed to delete temporary archive file: path={}, error={}", tmp, e.getMessage());
+        }
+    }
+}
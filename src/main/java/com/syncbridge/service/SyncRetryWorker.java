@@ -0,0 +1,197 @@
+package com.syncbridge.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.syncbridge.entity.SyncHistory;
+import com.syncbridge.entity.SyncMode;
+import com.syncbridge.entity.SyncStatus;
+import com.syncbridge.exception.ApiException;
+import com.syncbridge.repository.SyncHistoryRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Drains PENDING_RETRY sync history. Each poll claims due rows under a row lock, as many as
+ * {@code syncRetryExecutor} has free slots for, and returns without waiting for them. Stored payloads are
+ * replayed through the sync job path, or through per-row isolation for PARTIAL rows, and each row is either
+ * completed, scheduled for the next attempt with exponential backoff, or given up on after
+ * {@code app.sync.retry.max-retries} attempts.
+ *
+ * Each poll also reclaims PROCESSING rows whose lease expired ({@code app.sync.lease.timeout} without a
+ * renewal or progress update), e.g. a replay or async job cut off by a crash, back to PENDING_RETRY.
+ *
+ * Metrics:
+ * - sync.retry.queue.depth (PENDING_RETRY rows, refreshed every poll)
+ * - sync.retry.replay (replay latency with outcome tag)
+ */
+@Component
+@ConditionalOnProperty(name = "app.sync.retry.enabled", havingValue = "true", matchIfMissing = true)
+public class SyncRetryWorker {
+    private static final Logger logger = LoggerFactory.getLogger(SyncRetryWorker.class);
+    private static final List<String> OUTCOMES = List.of("success", "rejected", "retry", "exhausted");
+
+    private final SyncService syncService;
+    private final SyncHistoryService syncHistoryService;
+    private final SyncHistoryRepository repository;
+    private final ThreadPoolTaskExecutor syncRetryExecutor;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final Semaphore slots;
+    private final Map<String, Timer> replayTimers = new HashMap<>();
+
+    @Value("${app.sync.retry.batch-size:10}")
+    private int batchSize;
+
+    @Value("${app.sync.retry.max-retries:5}")
+    private int maxRetries;
+
+    @Value("${app.sync.retry.backoff-base-ms:1000}")
+    private long backoffBaseMs;
+
+    @Value("${app.sync.retry.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    @Value("${app.sync.lease.timeout:10m}")
+    private Duration leaseTimeout;
+
+    public SyncRetryWorker(SyncService syncService, SyncHistoryService syncHistoryService,
+                           SyncHistoryRepository repository, ThreadPoolTaskExecutor syncRetryExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.sync.retry.parallelism:2}") int parallelism) {
+        this.syncService = syncService;
+        this.syncHistoryService = syncHistoryService;
+        this.repository = repository;
+        this.syncRetryExecutor = syncRetryExecutor;
+        this.meterRegistry = meterRegistry;
+        this.slots = new Semaphore(parallelism);
+        Gauge.builder("sync.retry.queue.depth", queueDepth, AtomicLong::get)
+                .description("Sync history rows waiting for a retry")
+                .register(meterRegistry);
+        for (String outcome : OUTCOMES) {
+            replayTimers.put(outcome, Timer.builder("sync.retry.replay")
+                    .tags("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.sync.retry.poll-interval-ms:5000}")
+    public void drain() {
+        int reclaimed = syncHistoryService.reclaimExpired(Instant.now().minus(leaseTimeout), batchSize);
+        if (reclaimed > 0) {
+            logger.warn("Reclaimed sync history with an expired lease: count={}", reclaimed);
+        }
+        queueDepth.set(repository.countByStatus(SyncStatus.PENDING_RETRY));
+
+        // Claim only what the pool can start now, so a row never sits claimed behind a slow replay
+        int free = Math.min(batchSize, slots.availablePermits());
+        if (free == 0 || !slots.tryAcquire(free)) {
+            return;
+        }
+        // Permits not handed to a started row go back, whatever fails; rows claimed but never started
+        // stay PROCESSING until their lease expires and they are reclaimed
+        int unused = free;
+        try {
+            List<SyncHistory> claimed = syncHistoryService.claimForRetry(free);
+            if (claimed.isEmpty()) {
+                return;
+            }
+            logger.info("Replaying sync history: count={}", claimed.size());
+            for (SyncHistory sh : claimed) {
+                unused--;
+                start(sh);
+            }
+        } finally {
+            slots.release(unused);
+        }
+    }
+
+    /**
+     * Hands one claimed row, and the permit taken for it, to the retry pool. The permit is released here
+     * unless the task was accepted, in which case the task releases it.
+     */
+    private void start(SyncHistory sh) {
+        boolean started = false;
+        try {
+            syncHistoryService.hold(sh.getId());
+            syncRetryExecutor.execute(() -> {
+                try {
+                    replay(sh);
+                } finally {
+                    syncHistoryService.release(sh.getId());
+                    slots.release();
+                }
+            });
+            started = true;
+        } catch (TaskRejectedException e) {
+            syncHistoryService.scheduleRetry(sh.getId(), sh.getModel(), "Rejected: retry pool is full",
+                    Instant.now().plusMillis(backoffMillis(sh.getRetries())));
+        } finally {
+            if (!started) {
+                syncHistoryService.release(sh.getId());
+                slots.release();
+            }
+        }
+    }
+
+    private void replay(SyncHistory sh) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            List<?> data;
+            try {
+                data = syncService.readPayload(sh.getModel(), syncHistoryService.loadPayload(sh.getId()));
+            } catch (IOException | IllegalArgumentException | ApiException e) {
+                outcome = "rejected";
+                syncHistoryService.markFailure(sh.getId(), sh.getModel(),
+                        "Stored payload cannot be replayed: " + e.getMessage());
+                return;
+            }
+
+            try {
+                SyncMode mode = sh.getMode() == null ? SyncMode.DEFAULT : sh.getMode();
+                if (mode == SyncMode.PARTIAL) {
+                    syncService.replayPartial(sh.getId(), sh.getModel(), data);
+                } else {
+                    syncService.runJob(sh.getId(), sh.getModel(), data, mode);
+                }
+            } catch (Exception e) {
+                if (sh.getRetries() >= maxRetries) {
+                    outcome = "exhausted";
+                    syncHistoryService.markFailure(sh.getId(), sh.getModel(),
+                            "Gave up after " + sh.getRetries() + " attempts: " + e.getMessage());
+                } else {
+                    outcome = "retry";
+                    syncHistoryService.scheduleRetry(sh.getId(), sh.getModel(), e.getMessage(),
+                            Instant.now().plusMillis(backoffMillis(sh.getRetries())));
+                }
+                logger.warn("Sync replay failed: id={}, attempt={}, outcome={}, error={}",
+                        sh.getId(), sh.getRetries(), outcome, e.getMessage());
+            }
+        } finally {
+            sample.stop(replayTimers.get(outcome));
+        }
+    }
+
+    private long backoffMillis(int attempt) {
+        int exponent = Math.min(Math.max(attempt - 1, 0), 30);
+        return Math.min(backoffMaxMs, backoffBaseMs << exponent);
+    }
+}
@@ -0,0 +1,180 @@
+package com.syncbridge.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.syncbridge.entity.RollupGranularity;
+import com.syncbridge.entity.SyncHistory;
+import com.syncbridge.entity.SyncRollup;
+import com.syncbridge.entity.SyncStatus;
+import com.syncbridge.exception.ApiException;
+import com.syncbridge.repository.SyncHistoryRepository;
+import com.syncbridge.repository.SyncRollupRepository;
+
+/**
+ * Maintains sync_rollups, per-model sync counts, rows and durations pre-aggregated into minute and
+ * hour buckets. Each run folds finished history rows that are not rolled up yet into their buckets
+ * and flags them in the same transaction, so every attempt is counted exactly once; a retried row
+ * is cleared for rollup again when it is claimed. Time-series queries read only the buckets.
+ */
+@Service
+public class SyncRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(SyncRollupService.class);
+
+    private static final Set<SyncStatus> FINISHED = EnumSet.of(SyncStatus.SUCCESSFUL, SyncStatus.FAILED,
+            SyncStatus.INVALID);
+    private static final String UNKNOWN_MODEL = "unknown";
+
+    private final SyncHistoryRepository historyRepository;
+    private final SyncRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.sync.rollup.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.sync.rollup.max-range-buckets:10080}")
+    private int maxRangeBuckets;
+
+    public SyncRollupService(SyncHistoryRepository historyRepository, SyncRollupRepository rollupRepository,
+                             TransactionTemplate transactionTemplate) {
+        this.historyRepository = historyRepository;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${app.sync.rollup.interval-ms:30000}")
+    public void rollUp() {
+        Instant cutoff = Instant.now();
+        int folded;
+        long total = 0;
+        do {
+            folded = transactionTemplate.execute(status -> foldBatch(cutoff));
+            total += folded;
+        } while (folded == batchSize);
+        if (total > 0) {
+            logger.info("Rolled up sync history: rows={}", total);
+        }
+    }
+
+    private int foldBatch(Instant cutoff) {
+        List<SyncHistory> finished = historyRepository.findPendingRollup(FINISHED, cutoff,
+                PageRequest.of(0, batchSize));
+        if (finished.isEmpty()) {
+            return 0;
+        }
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Map<String, SyncRollup> buckets = new HashMap<>();
+            List<Instant> starts = finished.stream()
+                    .map(sh -> granularity.bucketOf(sh.getCompletedAt())).distinct().toList();
+            for (SyncRollup rollup : rollupRepository.findByGranularityAndBucketStartIn(granularity, starts)) {
+                buckets.put(key(rollup.getBucketStart(), rollup.getModel()), rollup);
+            }
+            for (SyncHistory sh : finished) {
+                Instant start = granularity.bucketOf(sh.getCompletedAt());
+                String model = sh.getModel() == null ? UNKNOWN_MODEL : sh.getModel();
+                SyncRollup rollup = buckets.computeIfAbsent(key(start, model),
+                        k -> new SyncRollup(granularity, start, model));
+                rollup.add(sh.getStatus(), valueOf(sh.getRowsProcessed()), valueOf(sh.getRowsFailed()),
+                        sh.getStartedAt() == null ? null
+                                : Duration.between(sh.getStartedAt(), sh.getCompletedAt()).toMillis());
+            }
+            rollupRepository.saveAll(buckets.values());
+        }
+        historyRepository.markRolledUp(finished.stream().map(SyncHistory::getId).toList());
+        return finished.size();
+    }
+
+    /**
+     * Buckets between {@code from} and {@code to} (inclusive, aligned to the granularity), optionally for
+     * one model, plus a per-model summary over the whole range. Durations are estimated from the bucket
+     * histograms, so p50/p95/p99 are upper bounds of the histogram bucket they fall in.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> timeseries(RollupGranularity granularity, String model, Instant from, Instant to) {
+        Instant start = granularity.bucketOf(from);
+        Instant end = granularity.bucketOf(to);
+        if (start.isAfter(end)) {
+            throw new ApiException(400, "from must not be after to");
+        }
+        long buckets = Duration.between(start, end).dividedBy(granularity.getWidth()) + 1;
+        if (buckets > maxRangeBuckets) {
+            throw new ApiException(400, "Range spans " + buckets + " " + granularity.getValue()
+                    + " buckets; the limit is " + maxRangeBuckets);
+        }
+
+        List<SyncRollup> rollups = model == null
+                ? rollupRepository.findByGranularityAndBucketStartBetweenOrderByBucketStartAscModelAsc(
+                        granularity, start, end)
+                : rollupRepository.findByGranularityAndModelAndBucketStartBetweenOrderByBucketStartAsc(
+                        granularity, model, start, end);
+
+        List<Map<String, Object>> series = new ArrayList<>(rollups.size());
+        Map<String, SyncRollup> totals = new LinkedHashMap<>();
+        Map<String, long[]> histograms = new HashMap<>();
+        for (SyncRollup rollup : rollups) {
+            long[] counts = rollup.getDurationCounts();
+            Map<String, Object> point = describe(rollup, counts);
+            point.put("bucket", rollup.getBucketStart());
+            point.put("model", rollup.getModel());
+            series.add(point);
+
+            SyncRollup total = totals.computeIfAbsent(rollup.getModel(),
+                    m -> new SyncRollup(granularity, start, m));
+            total.merge(rollup);
+            long[] merged = histograms.computeIfAbsent(rollup.getModel(), m -> new long[counts.length]);
+            for (int i = 0; i < counts.length; i++) {
+                merged[i] += counts[i];
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        totals.forEach((m, total) -> summary.put(m, describe(total, histograms.get(m))));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("granularity", granularity.getValue());
+        response.put("from", start);
+        response.put("to", end);
+        response.put("series", series);
+        response.put("summary", summary);
+        return response;
+    }
+
+    private static Map<String, Object> describe(SyncRollup rollup, long[] counts) {
+        Map<String, Object> point = new HashMap<>();
+        point.put("syncs", rollup.getSyncs());
+        point.put("successful", rollup.getSuccessful());
+        point.put("failed", rollup.getFailed());
+        point.put("rows", rollup.getRowsProcessed());
+        point.put("rowsFailed", rollup.getRowsFailed());
+        point.put("avgDurationMs", rollup.getSyncs() == 0 ? null : rollup.getDurationTotalMs() / rollup.getSyncs());
+        point.put("maxDurationMs", rollup.getDurationMaxMs());
+        point.put("p50DurationMs", SyncRollup.percentile(counts, 0.50, rollup.getDurationMaxMs()));
+        point.put("p95DurationMs", SyncRollup.percentile(counts, 0.95, rollup.getDurationMaxMs()));
+        point.put("p99DurationMs", SyncRollup.percentile(counts, 0.99, rollup.getDurationMaxMs()));
+        return point;
+    }
+
+    private static String key(Instant bucketStart, String model) {
+        return bucketStart + "|" + model;
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -1,38 +1,78 @@
 package com.syncbridge.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.hibernate.StaleStateException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.syncbridge.annotation.Monitored;
 import com.syncbridge.dto.SyncDtos;
 import com.syncbridge.entity.Customer;
 import com.syncbridge.entity.Employee;
+import com.syncbridge.entity.Fingerprinted;
 import com.syncbridge.entity.Order;
 import com.syncbridge.entity.OrderItem;
 import com.syncbridge.entity.Product;
 import com.syncbridge.entity.SyncHistory;
+import com.syncbridge.entity.SyncMode;
 import com.syncbridge.entity.SyncStatus;
+import com.syncbridge.exception.ApiException;
 import com.syncbridge.mapper.SyncMapper;
+import com.syncbridge.repository.ContentFingerprint;
 import com.syncbridge.repository.CustomerRepository;
 import com.syncbridge.repository.EmployeeRepository;
 import com.syncbridge.repository.OrderRepository;
 import com.syncbridge.repository.ProductRepository;
 import com.syncbridge.repository.SyncHistoryRepository;
+import com.syncbridge.service.SyncTimings.Stage;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @Service
 public class SyncService {
 
+    private static final List<String> ROW_STATUSES = List.of("created", "updated", "unchanged", "skipped");
+    private static final List<String> PARALLEL_MODELS = List.of("customers", "products", "employees");
+
     @Autowired
     private EmployeeRepository employeeRepository;
     @Autowired
@@ -54,6 +94,43 @@ public class SyncService {
     private Map<String, Class<?>> entityClasses;
     private Map<String, Class<?>> dtoClasses;
     private Map<String, Function<Object, Object>> mappers;
+    private Map<String, Function<Object, Long>> idExtractors;
+    private Map<String, Function<Object, Object>> dtoIdExtractors;
+    private Map<String, Function<Object, String>> naturalKeys;
+    private Map<String, Function<Collection<String>, List<?>>> existingByKeys;
+    private Map<String, BiPredicate<Object, Object>> mergers;
+    private Map<String, Function<Collection<String>, List<ContentFingerprint>>> fingerprintsByKeys;
+    private Map<String, Function<Collection<Long>, List<ContentFingerprint>>> fingerprintsByIds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SyncHistoryService syncHistoryService;
+
+    @Autowired
+    private SyncHistoryAppender syncHistoryAppender;
+
+    @Autowired
+    private SyncStatsTracker syncStatsTracker;
+
+    @Autowired
+    private ThreadPoolTaskExecutor syncPartitionExecutor;
+
+    @Value("${app.sync.parallel.partitions:4}")
+    private int partitions;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.sync.chunk-size:500}")
+    private int chunkSize;
 
     @PostConstruct
     public void init() {
@@ -80,108 +157,874 @@ public class SyncService {
         mappers.put("products", dto -> syncMapper.mapProduct((SyncDtos.ProductDto) dto));
         mappers.put("orders", dto -> syncMapper.mapOrder((SyncDtos.OrderDto) dto));
         mappers.put("employees", dto -> syncMapper.mapEmployee((SyncDtos.EmployeeDto) dto));
+
+        idExtractors = new HashMap<>();
+        idExtractors.put("employees", entity -> ((Employee) entity).getId());
+        idExtractors.put("customers", entity -> ((Customer) entity).getId());
+        idExtractors.put("products", entity -> ((Product) entity).getId());
+        idExtractors.put("orders", entity -> ((Order) entity).getId());
+
+        dtoIdExtractors = new HashMap<>();
+        dtoIdExtractors.put("employees", dto -> ((SyncDtos.EmployeeDto) dto).getId());
+        dtoIdExtractors.put("customers", dto -> ((SyncDtos.CustomerDto) dto).getId());
+        dtoIdExtractors.put("products", dto -> ((SyncDtos.ProductDto) dto).getId());
+        dtoIdExtractors.put("orders", dto -> ((SyncDtos.OrderDto) dto).getId());
+
+        naturalKeys = new HashMap<>();
+        naturalKeys.put("employees", entity -> ((Employee) entity).getEmail());
+        naturalKeys.put("customers", entity -> ((Customer) entity).getEmail());
+        naturalKeys.put("products", entity -> ((Product) entity).getName());
+        naturalKeys.put("orders", entity -> ((Order) entity).getOrderNumber());
+
+        existingByKeys = new HashMap<>();
+        existingByKeys.put("employees", employeeRepository::findByEmailIn);
+        existingByKeys.put("customers", customerRepository::findByEmailIn);
+        existingByKeys.put("products", productRepository::findByNameIn);
+        existingByKeys.put("orders", orderRepository::findByOrderNumberIn);
+
+        mergers = new HashMap<>();
+        mergers.put("employees", (target, source) -> syncMapper.mergeEmployee((Employee) target, (Employee) source));
+        mergers.put("customers", (target, source) -> syncMapper.mergeCustomer((Customer) target, (Customer) source));
+        mergers.put("products", (target, source) -> syncMapper.mergeProduct((Product) target, (Product) source));
+        mergers.put("orders", (target, source) -> syncMapper.mergeOrder((Order) target, (Order) source));
+
+        fingerprintsByKeys = new HashMap<>();
+        fingerprintsByKeys.put("employees", employeeRepository::findFingerprintsByEmailIn);
+        fingerprintsByKeys.put("customers", customerRepository::findFingerprintsByEmailIn);
+        fingerprintsByKeys.put("products", productRepository::findFingerprintsByNameIn);
+        fingerprintsByKeys.put("orders", orderRepository::findFingerprintsByOrderNumberIn);
+
+        fingerprintsByIds = new HashMap<>();
+        fingerprintsByIds.put("employees", employeeRepository::findFingerprintsByIdIn);
+        fingerprintsByIds.put("customers", customerRepository::findFingerprintsByIdIn);
+        fingerprintsByIds.put("products", productRepository::findFingerprintsByIdIn);
+        fingerprintsByIds.put("orders", orderRepository::findFingerprintsByIdIn);
+    }
+
+    public boolean supports(String model) {
+        return model != null && repositories.containsKey(model);
     }
 
+    /**
+     * Synchronous sync in one transaction. The history row is not written up front: it is built in memory
+     * and handed to {@link SyncHistoryAppender} with its final status once the transaction completes, so
+     * a failed sync is still recorded (with its payload, for a manual retry) after the data rolls back.
+     */
     @Transactional
     @Monitored(name = "sync.operation", tags = {"model"})
     @SuppressWarnings("unchecked")
-    public Map<String, Object> sync(String model, List<Map<String, Object>> data) {
+    public Map<String, Object> sync(String model, List<?> data, SyncMode mode, SyncTimings timings) {
         SyncHistory syncHistory = new SyncHistory();
+        syncHistory.setModel(model);
+        syncHistory.setMode(mode);
+        syncHistory.setStartedAt(Instant.now());
+        timings.time(Stage.HISTORY, () -> syncHistoryAppender.appendOnCompletion(syncHistory, data));
+
+        JpaRepository<Object, Object> repository = (JpaRepository<Object, Object>) repositories.get(model);
+
+        if (repository == null) {
+            finish(syncHistory, SyncStatus.INVALID, "Invalid model: " + model, 0, 0);
+            throw new IllegalArgumentException("Invalid model: " + model);
+        }
+
         try {
-            syncHistory.setPayload(objectMapper.writeValueAsString(data)); // Simplified payload storage
+            Map<String, Object> response = process(model, repository, data, mode, timings, processed -> {});
+            finish(syncHistory, SyncStatus.SUCCESSFUL, null, data.size(), 0);
+            return response;
+
         } catch (Exception e) {
-            syncHistory.setPayload("Error serializing payload");
+            finish(syncHistory, SyncStatus.FAILED, e.getMessage(), 0, data.size());
+            System.out.println("Exception type: " + e.getClass().getName());
+            throw e;
+        } finally {
+            timings.publish(meterRegistry, model, data.size());
+        }
+    }
+
+    /**
+     * Body of an asynchronous sync job created by {@link SyncJobService}. Data rows are written in
+     * this transaction as in {@link #sync}; progress is published per chunk in separate transactions.
+     * Failures propagate so the caller can record them after this transaction rolls back.
+     */
+    @Transactional
+    @Monitored(name = "sync.job", tags = {"model"})
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> runJob(Long jobId, String model, List<?> data, SyncMode mode) {
+        JpaRepository<Object, Object> repository = (JpaRepository<Object, Object>) repositories.get(model);
+        SyncTimings timings = new SyncTimings();
+        try {
+            Map<String, Object> response = process(model, repository, data, mode, timings,
+                    processed -> timings.time(Stage.HISTORY,
+                            () -> syncHistoryService.recordProgress(jobId, processed, 0)));
+
+            long historyStart = System.nanoTime();
+            Instant now = Instant.now();
+            syncHistoryRepository.updateProgress(jobId, data.size(), 0, now);
+            syncHistoryRepository.updateOutcome(jobId, SyncStatus.SUCCESSFUL, null, now);
+            syncStatsTracker.record(model, SyncStatus.PROCESSING, SyncStatus.SUCCESSFUL);
+            timings.since(Stage.HISTORY, historyStart);
+            return response;
+        } finally {
+            timings.publish(meterRegistry, model, data.size());
         }
-        syncHistory.setStatus(SyncStatus.PENDING_RETRY);
-        syncHistory = syncHistoryRepository.save(syncHistory);
+    }
 
+    /**
+     * Opt-in parallel ingest for models whose rows do not reference each other. The data list is split
+     * into contiguous partitions that are mapped and written on {@code syncPartitionExecutor}, each in
+     * its own transaction and connection. Partition results are merged back in input order, one per row
+     * with its input {@code index}; a failed partition rolls back on its own, its rows come back as failed,
+     * and the history row keeps only those rows as its payload so a retry replays nothing that landed.
+     */
+    @Monitored(name = "sync.parallel", tags = {"model"})
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> syncParallel(String model, List<?> data, SyncMode mode, SyncTimings timings) {
+        if (!PARALLEL_MODELS.contains(model)) {
+            throw new ApiException(400, "Parallel sync is only supported for " + String.join(", ", PARALLEL_MODELS));
+        }
         JpaRepository<Object, Object> repository = (JpaRepository<Object, Object>) repositories.get(model);
-        Class<?> entityClass = entityClasses.get(model);
-        Class<?> dtoClass = dtoClasses.get(model);
+        SyncHistory syncHistory = new SyncHistory();
+        syncHistory.setModel(model);
+        syncHistory.setMode(mode);
+        syncHistory.setStartedAt(Instant.now());
+
+        int partitionCount = Math.max(1, Math.min(partitions, data.size()));
+        int partitionSize = (data.size() + partitionCount - 1) / partitionCount;
+        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>(partitionCount);
+        for (int offset = 0; offset < data.size(); offset += partitionSize) {
+            List<?> partition = data.subList(offset, Math.min(offset + partitionSize, data.size()));
+            futures.add(submitPartition(() -> transactionTemplate.execute(
+                    status -> process(model, repository, partition, mode, timings, p -> {}))));
+        }
 
-        if (repository == null || entityClass == null || dtoClass == null) {
-            syncHistory.setStatus(SyncStatus.INVALID);
-            syncHistory.setFailureReason("Invalid model: " + model);
-            syncHistoryRepository.save(syncHistory);
+        Function<Object, Object> dtoIdExtractor = dtoIdExtractors.get(model);
+        List<Map<String, Object>> results = new ArrayList<>(data.size());
+        List<Map<String, Object>> partitionReports = new ArrayList<>(futures.size());
+        List<Object> failedRows = new ArrayList<>();
+        Map<String, Long> counts = new HashMap<>();
+        String firstError = null;
+        for (int i = 0; i < futures.size(); i++) {
+            int offset = i * partitionSize;
+            int size = Math.min(partitionSize, data.size() - offset);
+            Map<String, Object> report = new HashMap<>();
+            report.put("partition", i);
+            report.put("offset", offset);
+            report.put("rows", size);
+            try {
+                Map<String, Object> partitionResult = futures.get(i).join();
+                List<Map<String, Object>> partitionRows = (List<Map<String, Object>>) partitionResult.get("results");
+                for (int row = 0; row < partitionRows.size(); row++) {
+                    partitionRows.get(row).put("index", offset + row);
+                }
+                results.addAll(partitionRows);
+                for (String rowStatus : ROW_STATUSES) {
+                    counts.merge(rowStatus, (Long) partitionResult.get(rowStatus), Long::sum);
+                }
+                report.put("status", "successful");
+            } catch (CompletionException e) {
+                String reason = NestedExceptionUtils.getMostSpecificCause(e.getCause() != null ? e.getCause() : e)
+                        .getMessage();
+                for (int row = offset; row < offset + size; row++) {
+                    results.add(rowResult(row, dtoIdExtractor.apply(data.get(row)), "failed", reason));
+                    failedRows.add(data.get(row));
+                }
+                firstError = firstError == null ? reason : firstError;
+                report.put("status", "failed");
+                report.put("error", reason);
+            }
+            partitionReports.add(report);
+        }
+
+        long failedPartitions = partitionReports.stream().filter(r -> "failed".equals(r.get("status"))).count();
+        long historyStart = System.nanoTime();
+        if (failedPartitions == 0) {
+            finish(syncHistory, SyncStatus.SUCCESSFUL, null, data.size(), 0);
+            syncHistoryAppender.append(syncHistory, data);
+        } else {
+            finish(syncHistory, SyncStatus.FAILED,
+                    failedPartitions + " of " + futures.size() + " partitions failed: " + firstError,
+                    data.size() - failedRows.size(), failedRows.size());
+            syncHistoryAppender.append(syncHistory, failedRows);
+        }
+        timings.since(Stage.HISTORY, historyStart);
+        timings.publish(meterRegistry, model, data.size());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        for (String rowStatus : ROW_STATUSES) {
+            response.put(rowStatus, counts.getOrDefault(rowStatus, 0L));
+        }
+        response.put("failed", (long) failedRows.size());
+        response.put("partitions", partitionReports);
+        return response;
+    }
+
+    /**
+     * Runs a partition on {@code syncPartitionExecutor}, or on the calling thread when the pool rejects it
+     * (e.g. while shutting down), so every partition still ends up written or reported as failed.
+     */
+    private CompletableFuture<Map<String, Object>> submitPartition(Supplier<Map<String, Object>> partition) {
+        try {
+            return CompletableFuture.supplyAsync(partition, syncPartitionExecutor);
+        } catch (RejectedExecutionException e) {
+            try {
+                return CompletableFuture.completedFuture(partition.get());
+            } catch (RuntimeException failure) {
+                return CompletableFuture.failedFuture(failure);
+            }
+        }
+    }
+
+    /**
+     * Per-row error isolation for {@code mode=partial}. Each row is bean-validated and mapped on its own,
+     * then the survivors are written in chunks, each in its own transaction. A chunk that fails to write
+     * is rolled back and split in half until the offending rows are isolated, so every good row commits.
+     * Results come back per row in input order; failed rows carry a reason, and the history row keeps only
+     * the failed subset as its payload so a retry replays nothing that already landed.
+     */
+    @Monitored(name = "sync.partial", tags = {"model"})
+    public Map<String, Object> syncPartial(String model, List<?> data, SyncTimings timings) {
+        SyncHistory syncHistory = new SyncHistory();
+        syncHistory.setModel(model);
+        syncHistory.setMode(SyncMode.PARTIAL);
+        syncHistory.setStartedAt(Instant.now());
+
+        List<Object> failedRows = new ArrayList<>();
+        Map<String, Object> response = processPartial(model, data, failedRows, timings);
+
+        long historyStart = System.nanoTime();
+        if (failedRows.isEmpty()) {
+            finish(syncHistory, SyncStatus.SUCCESSFUL, null, data.size(), 0);
+            syncHistoryAppender.append(syncHistory, data);
+        } else {
+            finish(syncHistory, SyncStatus.FAILED, failedRows.size() + " of " + data.size() + " rows failed",
+                    data.size(), failedRows.size());
+            syncHistoryAppender.append(syncHistory, failedRows);
+        }
+        timings.since(Stage.HISTORY, historyStart);
+        timings.publish(meterRegistry, model, data.size());
+        return response;
+    }
+
+    /**
+     * Replays the stored payload of a PARTIAL history row with the same per-row isolation as
+     * {@link #syncPartial}. The row completes if every row lands; otherwise its payload is narrowed to the
+     * rows that still fail and the failure propagates, so the caller can schedule the next attempt.
+     */
+    @Monitored(name = "sync.job", tags = {"model"})
+    public Map<String, Object> replayPartial(Long historyId, String model, List<?> data) {
+        SyncTimings timings = new SyncTimings();
+        List<Object> failedRows = new ArrayList<>();
+        Map<String, Object> response = processPartial(model, data, failedRows, timings);
+
+        long historyStart = System.nanoTime();
+        syncHistoryService.recordProgress(historyId, data.size(), failedRows.size());
+        if (!failedRows.isEmpty()) {
+            syncHistoryService.replacePayload(historyId, failedRows);
+        } else {
+            syncHistoryService.markSuccess(historyId, model);
+        }
+        timings.since(Stage.HISTORY, historyStart);
+        timings.publish(meterRegistry, model, data.size());
+        if (!failedRows.isEmpty()) {
+            throw new IllegalStateException(failedRows.size() + " of " + data.size() + " rows failed");
+        }
+        return response;
+    }
+
+    /**
+     * Validates, maps and writes {@code data} row by row, collecting the DTOs of rows that failed into
+     * {@code failedRows}, and returns the per-row response.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> processPartial(String model, List<?> data, List<Object> failedRows,
+                                               SyncTimings timings) {
+        JpaRepository<Object, Object> repository = (JpaRepository<Object, Object>) repositories.get(model);
+        if (repository == null) {
+            throw new ApiException(400, "Invalid model: " + model);
+        }
+        List<Map<String, Object>> results = new ArrayList<>(data.size());
+        List<Integer> rows = new ArrayList<>(chunkSize);
+        List<Object> chunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < data.size(); i++) {
+            results.add(null);
+            Object dto = data.get(i);
+            String reason = timings.time(Stage.VALIDATE, () -> validate(dto));
+            if (reason == null) {
+                long mapStart = System.nanoTime();
+                try {
+                    chunk.add(toEntity(model, dto));
+                    rows.add(i);
+                } catch (RuntimeException e) {
+                    reason = e.getMessage();
+                } finally {
+                    timings.since(Stage.MAP, mapStart);
+                }
+            }
+            if (reason != null) {
+                results.set(i, rowResult(i, dtoIdExtractors.get(model).apply(dto), "failed", reason));
+            }
+            if (rows.size() >= chunkSize) {
+                rejectUnresolved(model, data, rows, chunk, results, timings);
+                writeIsolated(model, repository, data, rows, chunk, results, timings);
+                rows.clear();
+            }
+        }
+        rejectUnresolved(model, data, rows, chunk, results, timings);
+        writeIsolated(model, repository, data, rows, chunk, results, timings);
+
+        Map<String, Object> response = new HashMap<>();
+        for (Map<String, Object> result : results) {
+            if ("failed".equals(result.get("status"))) {
+                failedRows.add(data.get((Integer) result.get("index")));
+            }
+        }
+        response.put("results", results);
+        for (String status : ROW_STATUSES) {
+            response.put(status, results.stream().filter(r -> status.equals(r.get("status"))).count());
+        }
+        response.put("failed", (long) failedRows.size());
+        recordSkipped(model, (Long) response.get("skipped"));
+        return response;
+    }
+
+    /**
+     * Rebinds a stored SyncHistory payload to the model DTOs so it can be replayed.
+     */
+    public List<?> readPayload(String model, String payload) throws IOException {
+        Class<?> dtoClass = dtoClasses.get(model);
+        if (dtoClass == null) {
             throw new IllegalArgumentException("Invalid model: " + model);
         }
+        return objectMapper.readerForListOf(dtoClass).readValue(payload);
+    }
 
+    private Map<String, Object> process(String model, JpaRepository<Object, Object> repository, List<?> data,
+                                        SyncMode mode, SyncTimings timings, LongConsumer onProgress) {
+        Function<Object, Object> dtoIdExtractor = dtoIdExtractors.get(model);
         List<Map<String, Object>> results = new ArrayList<>();
+        List<Object> chunk = new ArrayList<>(chunkSize);
+        List<String> chunkStatuses = new ArrayList<>(chunkSize);
+
+        for (Object dto : data) {
+            // Items arrive already bound to the model DTO; map straight to the entity
+            long mapStart = System.nanoTime();
+            chunk.add(toEntity(model, dto));
+            timings.since(Stage.MAP, mapStart);
+            if (mode != SyncMode.UPSERT) {
+                chunkStatuses.add(dtoIdExtractor.apply(dto) != null ? "updated" : "created"); // Simplified status logic
+            }
+            if (chunk.size() >= chunkSize) {
+                appendResults(flushChunk(model, mode, repository, chunk, chunkStatuses, results.size(), timings),
+                        chunkStatuses, results);
+                onProgress.accept(results.size());
+            }
+        }
+        appendResults(flushChunk(model, mode, repository, chunk, chunkStatuses, results.size(), timings),
+                chunkStatuses, results);
 
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        for (String status : ROW_STATUSES) {
+            response.put(status, results.stream().filter(r -> status.equals(r.get("status"))).count());
+        }
+        recordSkipped(model, (Long) response.get("skipped"));
+        return response;
+    }
+
+    /**
+     * Streams an NDJSON body record by record, binding each line straight to the model DTO.
+     * Rows are committed in chunks of {@code app.sync.chunk-size}, so memory stays flat
+     * regardless of feed size; chunks written before a failure stay committed.
+     */
+    @Monitored(name = "sync.stream", tags = {"model"})
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> syncStream(String model, InputStream body, SyncMode mode, SyncTimings timings) {
+        JpaRepository<Object, Object> repository = (JpaRepository<Object, Object>) repositories.get(model);
+        Class<?> dtoClass = dtoClasses.get(model);
+        if (repository == null || dtoClass == null) {
+            throw new ApiException(400, "Invalid model: " + model);
+        }
+
+        SyncHistory syncHistory = new SyncHistory();
+        syncHistory.setModel(model);
+        syncHistory.setMode(mode);
+        syncHistory.setStartedAt(Instant.now());
+        syncHistory.setStatus(SyncStatus.PROCESSING);
+        SyncHistory created = syncHistory;
+        syncHistory = timings.time(Stage.HISTORY,
+                () -> syncHistoryService.create(created, Map.of("model", model, "source", "ndjson-stream")));
+        syncHistoryService.hold(syncHistory.getId());
+
+        Function<Object, Object> dtoIdExtractor = dtoIdExtractors.get(model);
+        List<Object> chunk = new ArrayList<>(chunkSize);
+        List<String> chunkStatuses = new ArrayList<>(chunkSize);
+        Map<String, Long> counts = new HashMap<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body);
+             MappingIterator<Object> records = objectMapper.readerFor(dtoClass).readValues(parser)) {
+            long readStart = System.nanoTime();
+            while (records.hasNextValue()) {
+                Object dto = records.nextValue();
+                timings.since(Stage.DESERIALIZE, readStart);
+                long mapStart = System.nanoTime();
+                chunk.add(toEntity(model, dto));
+                timings.since(Stage.MAP, mapStart);
+                if (mode != SyncMode.UPSERT) {
+                    chunkStatuses.add(dtoIdExtractor.apply(dto) != null ? "updated" : "created");
+                }
+                if (chunk.size() >= chunkSize) {
+                    commitChunk(model, mode, repository, chunk, chunkStatuses, counts, timings);
+                }
+                readStart = System.nanoTime();
+            }
+            timings.since(Stage.DESERIALIZE, readStart);
+            commitChunk(model, mode, repository, chunk, chunkStatuses, counts, timings);
+        } catch (JsonProcessingException e) {
+            String reason = e.getLocation() == null ? "Malformed NDJSON record"
+                    : "Malformed NDJSON record near line " + e.getLocation().getLineNr();
+            markFailed(syncHistory, reason + " after " + rowCount(counts) + " rows", rowCount(counts), timings);
+            throw new ApiException(400, reason);
+        } catch (IOException e) {
+            markFailed(syncHistory, "Failed reading stream after " + rowCount(counts) + " rows", rowCount(counts),
+                    timings);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            markFailed(syncHistory, e.getMessage(), rowCount(counts), timings);
+            throw e;
+        } finally {
+            syncHistoryService.release(syncHistory.getId());
+        }
+
+        long historyStart = System.nanoTime();
+        syncStatsTracker.record(model, syncHistory.getStatus(), SyncStatus.SUCCESSFUL);
+        syncHistory.setStatus(SyncStatus.SUCCESSFUL);
+        syncHistory.setRowsProcessed(rowCount(counts));
+        syncHistory.setCompletedAt(Instant.now());
+        syncHistoryRepository.save(syncHistory);
+        timings.since(Stage.HISTORY, historyStart);
+        timings.publish(meterRegistry, model, rowCount(counts));
+        recordSkipped(model, counts.getOrDefault("skipped", 0L));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("model", model);
+        response.put("rows", rowCount(counts));
+        for (String status : ROW_STATUSES) {
+            response.put(status, counts.getOrDefault(status, 0L));
+        }
+        return response;
+    }
+
+    private Object toEntity(String model, Object dto) {
+        Function<Object, Object> mapperFn = mappers.get(model);
+        Object entity;
+        if (mapperFn != null) {
+            entity = mapperFn.apply(dto);
+        } else {
+            entity = objectMapper.convertValue(dto, entityClasses.get(model));
+        }
+
+        if (model.equals("orders") && entity instanceof Order) {
+            Order order = (Order) entity;
+            if (order.getItems() != null) {
+                for (OrderItem item : order.getItems()) {
+                    item.setOrder(order);
+                }
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * Writes one chunk and returns the id each row resolved to, in row order.
+     * {@code chunkStatuses} ends up holding the per-row status for the same positions;
+     * {@code offset} is the input row number of the chunk's first row, used in error messages.
+     */
+    private List<Long> flushChunk(String model, SyncMode mode, JpaRepository<Object, Object> repository,
+                                  List<Object> chunk, List<String> chunkStatuses, int offset, SyncTimings timings) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, String> unresolved = timings.time(Stage.VALIDATE, () -> unknownReferences(model, chunk));
+        if (!unresolved.isEmpty()) {
+            throw new ApiException(400, "Unresolved order references: " + unresolved.entrySet().stream()
+                    .map(e -> "row " + (offset + e.getKey()) + " (" + e.getValue() + ")")
+                    .collect(Collectors.joining("; ")));
+        }
+        return persistChunk(model, mode, repository, chunk, chunkStatuses, offset, timings);
+    }
+
+    /**
+     * {@link #flushChunk} for a chunk whose references have already been checked.
+     */
+    private List<Long> persistChunk(String model, SyncMode mode, JpaRepository<Object, Object> repository,
+                                    List<Object> chunk, List<String> chunkStatuses, int offset, SyncTimings timings) {
+        meterRegistry.summary("sync.chunk.rows", "model", model).record(chunk.size());
+        long persistStart = System.nanoTime();
         try {
-            for (Map<String, Object> itemData : data) {
-                Object id = itemData.get("id");
-
-                // First convert incoming map to the corresponding DTO, then to entity
-                Object dto = objectMapper.convertValue(itemData, dtoClass);
-                Function<Object, Object> mapperFn = mappers.get(model);
-                Object entity;
-                if (mapperFn != null) {
-                    entity = mapperFn.apply(dto);
-                } else {
-                    entity = objectMapper.convertValue(dto, entityClass);
+            bindReferences(model, chunk);
+            List<Long> ids = mode == SyncMode.UPSERT
+                    ? upsertChunk(model, repository, chunk, chunkStatuses)
+                    : writeChunk(model, repository, chunk, chunkStatuses);
+            entityManager.flush();
+            entityManager.clear();
+            chunk.clear();
+            return ids;
+        } catch (OptimisticLockException | StaleStateException | OptimisticLockingFailureException e) {
+            throw conflict(model, chunk, chunkStatuses, offset);
+        } finally {
+            timings.since(Stage.PERSIST, persistStart);
+        }
+    }
+
+    /**
+     * Builds the 409 for a chunk whose flush lost an optimistic-lock race, e.g. two syncs replacing the same
+     * order's items at once. Rows being updated are the likely conflicts and are named; when there are none
+     * (an insert or delete lost the race) every row of the chunk is named instead. The caller can retry.
+     */
+    private ApiException conflict(String model, List<Object> chunk, List<String> chunkStatuses, int offset) {
+        Function<Object, String> naturalKey = naturalKeys.get(model);
+        List<String> updated = new ArrayList<>();
+        List<String> all = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            String key = naturalKey.apply(chunk.get(i));
+            String row = "row " + (offset + i) + (key != null ? " (" + key + ")" : "");
+            all.add(row);
+            if (i < chunkStatuses.size() && "updated".equals(chunkStatuses.get(i))) {
+                updated.add(row);
+            }
+        }
+        meterRegistry.counter("sync.conflicts", "model", model).increment();
+        List<String> rows = updated.isEmpty() ? all : updated;
+        return new ApiException(409, rows.isEmpty() ? "Concurrent update conflict; retry the request"
+                : "Concurrent update conflict on " + String.join("; ", rows) + "; retry the request");
+    }
+
+    /**
+     * Upserts one chunk by natural key. Stored fingerprints for the whole chunk are fetched with a
+     * single IN query, and rows whose fingerprint is unchanged are skipped without loading them.
+     * The remaining matches are loaded in one more IN query and diffed in memory, so only rows that
+     * actually changed are dirtied. Rows repeating a key within the chunk merge into the first one.
+     */
+    private List<Long> upsertChunk(String model, JpaRepository<Object, Object> repository, List<Object> chunk,
+                                   List<String> chunkStatuses) {
+        Function<Object, String> naturalKey = naturalKeys.get(model);
+        Function<Object, Long> idExtractor = idExtractors.get(model);
+        BiPredicate<Object, Object> merger = mergers.get(model);
+
+        Set<String> keys = new HashSet<>();
+        for (Object entity : chunk) {
+            String key = naturalKey.apply(entity);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        Map<String, ContentFingerprint> stored = new HashMap<>();
+        for (ContentFingerprint fingerprint : fingerprintsByKeys.get(model).apply(keys)) {
+            stored.put(fingerprint.getNaturalKey(), fingerprint);
+        }
+
+        Set<String> changedKeys = new HashSet<>();
+        for (Object entity : chunk) {
+            String key = naturalKey.apply(entity);
+            ContentFingerprint fingerprint = key == null ? null : stored.get(key);
+            if (fingerprint != null && !matches(fingerprint, entity)) {
+                changedKeys.add(key);
+            }
+        }
+        Map<String, Object> existing = new HashMap<>();
+        if (!changedKeys.isEmpty()) {
+            for (Object entity : existingByKeys.get(model).apply(changedKeys)) {
+                existing.put(naturalKey.apply(entity), entity);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (Object incoming : chunk) {
+            String key = naturalKey.apply(incoming);
+            Object current = key == null ? null : existing.get(key);
+            ContentFingerprint fingerprint = key == null ? null : stored.get(key);
+            if (current != null) {
+                boolean changed = merger.test(current, incoming);
+                if (changed) {
+                    ((Fingerprinted) current).refreshContentHash();
+                }
+                ids.add(idExtractor.apply(current));
+                chunkStatuses.add(changed ? "updated" : "unchanged");
+            } else if (fingerprint != null) {
+                ids.add(fingerprint.getId());
+                chunkStatuses.add("skipped");
+            } else {
+                Object saved = repository.save(incoming);
+                if (key != null) {
+                    existing.put(key, saved);
                 }
+                ids.add(idExtractor.apply(saved));
+                chunkStatuses.add("created");
+            }
+        }
+        return ids;
+    }
 
+    /**
+     * Persists one chunk through saveAll so Hibernate can group the inserts into JDBC batches.
+     * Rows addressed by id whose stored fingerprint matches are skipped instead of rewritten.
+     */
+    private List<Long> writeChunk(String model, JpaRepository<Object, Object> repository, List<Object> chunk,
+                                  List<String> chunkStatuses) {
+        Function<Object, Long> idExtractor = idExtractors.get(model);
 
-                if (model.equals("orders") && entity instanceof Order) {
-                    Order order = (Order) entity;
-                    if (order.getItems() != null) {
-                        for (OrderItem item : order.getItems()) {
-                            item.setOrder(order);
-                        }
-                    }
+        Set<Long> requestedIds = new HashSet<>();
+        for (Object entity : chunk) {
+            Long id = idExtractor.apply(entity);
+            if (id != null) {
+                requestedIds.add(id);
+            }
+        }
+        Map<Long, ContentFingerprint> stored = new HashMap<>();
+        if (!requestedIds.isEmpty()) {
+            for (ContentFingerprint fingerprint : fingerprintsByIds.get(model).apply(requestedIds)) {
+                stored.put(fingerprint.getId(), fingerprint);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(chunk.size());
+        List<Object> pending = new ArrayList<>(chunk.size());
+        List<Integer> pendingPositions = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Object entity = chunk.get(i);
+            Long id = idExtractor.apply(entity);
+            ContentFingerprint fingerprint = id == null ? null : stored.get(id);
+            if (fingerprint != null && matches(fingerprint, entity)) {
+                ids.add(id);
+                chunkStatuses.set(i, "skipped");
+            } else {
+                ids.add(null);
+                pending.add(entity);
+                pendingPositions.add(i);
+            }
+        }
+
+        List<Object> saved = repository.saveAll(pending);
+        for (int i = 0; i < saved.size(); i++) {
+            ids.set(pendingPositions.get(i), idExtractor.apply(saved.get(i)));
+        }
+        return ids;
+    }
+
+    /**
+     * Writes the given rows in one transaction, bisecting on failure. {@code chunk} holds the already mapped
+     * entities for the first attempt; halves are re-mapped from their DTOs, since a rolled-back attempt can
+     * leave ids assigned on the entities it tried to persist.
+     */
+    private void writeIsolated(String model, JpaRepository<Object, Object> repository, List<?> data,
+                               List<Integer> rows, List<Object> chunk, List<Map<String, Object>> results,
+                               SyncTimings timings) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Function<Object, Object> dtoIdExtractor = dtoIdExtractors.get(model);
+        List<String> chunkStatuses = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            chunkStatuses.add(dtoIdExtractor.apply(data.get(row)) != null ? "updated" : "created");
+        }
+        try {
+            // rejectUnresolved has already checked references for every row of the chunk
+            List<Long> ids = transactionTemplate.execute(status -> persistChunk(model, SyncMode.DEFAULT, repository,
+                    chunk, chunkStatuses, rows.get(0), timings));
+            for (int i = 0; i < rows.size(); i++) {
+                results.set(rows.get(i), rowResult(rows.get(i), ids.get(i), chunkStatuses.get(i), null));
+            }
+        } catch (RuntimeException e) {
+            chunk.clear();
+            if (rows.size() == 1) {
+                int row = rows.get(0);
+                String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                results.set(row, rowResult(row, dtoIdExtractor.apply(data.get(row)), "failed", reason));
+                return;
+            }
+            int middle = rows.size() / 2;
+            for (List<Integer> half : List.of(rows.subList(0, middle), rows.subList(middle, rows.size()))) {
+                List<Object> remapped = new ArrayList<>(half.size());
+                timings.time(Stage.MAP, () -> half.forEach(row -> remapped.add(toEntity(model, data.get(row)))));
+                writeIsolated(model, repository, data, half, remapped, results, timings);
+            }
+        }
+    }
+
+    /**
+     * Fails rows whose references do not resolve up front, so they never cost a bisected write.
+     */
+    private void rejectUnresolved(String model, List<?> data, List<Integer> rows, List<Object> chunk,
+                                  List<Map<String, Object>> results, SyncTimings timings) {
+        Map<Integer, String> unresolved = timings.time(Stage.VALIDATE, () -> unknownReferences(model, chunk));
+        for (int position = chunk.size() - 1; position >= 0; position--) {
+            String reason = unresolved.get(position);
+            if (reason != null) {
+                int row = rows.remove(position);
+                chunk.remove(position);
+                results.set(row, rowResult(row, dtoIdExtractors.get(model).apply(data.get(row)), "failed", reason));
+            }
+        }
+    }
+
+    /**
+     * Checks every customer and product an order chunk points at with one IN query per table,
+     * and returns a reason per chunk position for rows whose references are missing or unknown.
+     */
+    private Map<Integer, String> unknownReferences(String model, List<Object> chunk) {
+        Map<Integer, String> unresolved = new TreeMap<>();
+        if (!"orders".equals(model) || chunk.isEmpty()) {
+            return unresolved;
+        }
+        Set<Long> customerIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (Object entity : chunk) {
+            Order order = (Order) entity;
+            if (order.getCustomer() != null && order.getCustomer().getId() != null) {
+                customerIds.add(order.getCustomer().getId());
+            }
+            for (OrderItem item : order.getItems()) {
+                if (item.getProduct() != null && item.getProduct().getId() != null) {
+                    productIds.add(item.getProduct().getId());
                 }
+            }
+        }
+        Set<Long> knownCustomers = customerIds.isEmpty() ? Set.of()
+                : new HashSet<>(customerRepository.findExistingIds(customerIds));
+        Set<Long> knownProducts = productIds.isEmpty() ? Set.of()
+                : new HashSet<>(productRepository.findExistingIds(productIds));
 
-                Object savedEntity = repository.save(entity);
-
-                // Extract ID from saved entity (assuming getId method exists or using
-                // reflection/casting)
-                // For simplicity, we'll use the ID from the input map if present, or try to get
-                // it from the saved entity
-                // Since we know the types, we can cast.
-                Long savedId = null;
-                switch (model) {
-                    case "employees" -> savedId = ((Employee) savedEntity).getId();
-                    case "customers" -> savedId = ((Customer) savedEntity).getId();
-                    case "products" -> savedId = ((Product) savedEntity).getId();
-                    case "orders" -> savedId = ((Order) savedEntity).getId();
+        for (int i = 0; i < chunk.size(); i++) {
+            Order order = (Order) chunk.get(i);
+            List<String> problems = new ArrayList<>();
+            Long customerId = order.getCustomer() == null ? null : order.getCustomer().getId();
+            if (customerId == null) {
+                problems.add("customer_id is required");
+            } else if (!knownCustomers.contains(customerId)) {
+                problems.add("unknown customer_id " + customerId);
+            }
+            Set<Long> missingProducts = new TreeSet<>();
+            for (OrderItem item : order.getItems()) {
+                Long productId = item.getProduct() == null ? null : item.getProduct().getId();
+                if (productId == null) {
+                    problems.add("product_id is required");
+                } else if (!knownProducts.contains(productId)) {
+                    missingProducts.add(productId);
                 }
+            }
+            if (!missingProducts.isEmpty()) {
+                problems.add("unknown product_id " + missingProducts.stream().map(String::valueOf)
+                        .collect(Collectors.joining(", ")));
+            }
+            if (!problems.isEmpty()) {
+                unresolved.put(i, String.join("; ", problems));
+            }
+        }
+        return unresolved;
+    }
 
-                Map<String, Object> result = new HashMap<>();
-                result.put("id", savedId);
-                result.put("status", id != null ? "updated" : "created"); // Simplified status logic
-                results.add(result);
+    /**
+     * Swaps the id-only Customer and Product stubs built by the mapper for persistence-context
+     * references, so writing and merging orders never loads the referenced rows.
+     */
+    private void bindReferences(String model, List<Object> chunk) {
+        if (!"orders".equals(model)) {
+            return;
+        }
+        for (Object entity : chunk) {
+            Order order = (Order) entity;
+            order.setCustomer(entityManager.getReference(Customer.class, order.getCustomer().getId()));
+            for (OrderItem item : order.getItems()) {
+                item.setProduct(entityManager.getReference(Product.class, item.getProduct().getId()));
             }
+        }
+    }
 
-            syncHistory.setStatus(SyncStatus.SUCCESSFUL);
-            syncHistoryRepository.save(syncHistory);
+    private String validate(Object dto) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .collect(Collectors.joining("; "));
+    }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("results", results);
-            return response;
+    private static Map<String, Object> rowResult(int index, Object id, String status, String reason) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("index", index);
+        result.put("id", id);
+        result.put("status", status);
+        if (reason != null) {
+            result.put("reason", reason);
+        }
+        return result;
+    }
 
-        } catch (Exception e) {
-            syncHistory.setStatus(SyncStatus.FAILED);
-            syncHistory.setFailureReason(e.getMessage());
-            syncHistoryRepository.save(syncHistory);
-            System.out.println("Exception type: " + e.getClass().getName());
-            throw e;
+    private static boolean matches(ContentFingerprint fingerprint, Object entity) {
+        return fingerprint.getContentHash() != null
+                && fingerprint.getContentHash().equals(((Fingerprinted) entity).getContentHash());
+    }
+
+    private void commitChunk(String model, SyncMode mode, JpaRepository<Object, Object> repository,
+                             List<Object> chunk, List<String> chunkStatuses, Map<String, Long> counts,
+                             SyncTimings timings) {
+        int offset = (int) rowCount(counts);
+        transactionTemplate.executeWithoutResult(
+                status -> flushChunk(model, mode, repository, chunk, chunkStatuses, offset, timings));
+        for (String rowStatus : chunkStatuses) {
+            counts.merge(rowStatus, 1L, Long::sum);
         }
+        chunkStatuses.clear();
     }
 
-    public Map<String, Object> getStats() {
-        List<Object[]> statsList = syncHistoryRepository.countByStatus();
-        Map<String, Object> statsSummary = new HashMap<>();
+    private void appendResults(List<Long> ids, List<String> chunkStatuses, List<Map<String, Object>> results) {
+        for (int i = 0; i < ids.size(); i++) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("id", ids.get(i));
+            result.put("status", chunkStatuses.get(i));
+            results.add(result);
+        }
+        chunkStatuses.clear();
+    }
+
+    private static long rowCount(Map<String, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
 
-        long total = 0;
-        for (Object[] stat : statsList) {
-            SyncStatus status = (SyncStatus) stat[0];
-            Long count = (Long) stat[1];
-            statsSummary.put(status.getValue(), count);
-            total += count;
+    private void recordSkipped(String model, long skipped) {
+        if (skipped > 0) {
+            meterRegistry.counter("sync.operation.skipped", "model", model).increment(skipped);
         }
-        statsSummary.put("total", total);
+    }
+
+    /**
+     * Sets the final state of a history record that has not been written yet.
+     */
+    private static void finish(SyncHistory syncHistory, SyncStatus status, String reason, long rowsProcessed,
+                               long rowsFailed) {
+        syncHistory.setStatus(status);
+        syncHistory.setFailureReason(reason);
+        syncHistory.setRowsProcessed(rowsProcessed);
+        syncHistory.setRowsFailed(rowsFailed);
+        syncHistory.setCompletedAt(Instant.now());
+    }
 
-        return statsSummary;
+    private void markFailed(SyncHistory syncHistory, String reason, long rowsProcessed, SyncTimings timings) {
+        long historyStart = System.nanoTime();
+        syncStatsTracker.record(syncHistory.getModel(), syncHistory.getStatus(), SyncStatus.FAILED);
+        syncHistory.setStatus(SyncStatus.FAILED);
+        syncHistory.setFailureReason(reason);
+        syncHistory.setRowsProcessed(rowsProcessed);
+        syncHistory.setCompletedAt(Instant.now());
+        syncHistoryRepository.save(syncHistory);
+        timings.since(Stage.HISTORY, historyStart);
+        timings.publish(meterRegistry, syncHistory.getModel(), rowsProcessed);
+    }
+
+    public Map<String, Object> getStats() {
+        return syncStatsTracker.snapshot();
     }
 }
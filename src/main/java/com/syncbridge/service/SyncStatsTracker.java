@@ -0,0 +1,198 @@
+package com.syncbridge.service;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.syncbridge.entity.SyncStatus;
+import com.syncbridge.repository.SyncHistoryRepository;
+
+/**
+ * In-memory sync history counters per model and status, so stats are served without scanning
+ * sync_history. Every status change is reported through {@link #record}; changes made inside a
+ * transaction are applied only once it commits. Counts are reconciled against the table on startup
+ * and every {@code app.sync.stats.reconcile-interval-ms} to absorb drift from concurrent writers.
+ *
+ * Recent activity is kept as arrivals per status in a ring of 10-second buckets covering one hour.
+ */
+@Component
+public class SyncStatsTracker {
+    private static final Logger logger = LoggerFactory.getLogger(SyncStatsTracker.class);
+
+    private static final String UNKNOWN_MODEL = "unknown";
+    private static final long BUCKET_MILLIS = 10_000;
+    private static final int BUCKETS = 360;
+    private static final Map<String, Long> WINDOWS = windows();
+
+    private final SyncHistoryRepository repository;
+    private final Map<String, Map<SyncStatus, LongAdder>> counts = new ConcurrentHashMap<>();
+    private final Bucket[] buckets = new Bucket[BUCKETS];
+
+    public SyncStatsTracker(SyncHistoryRepository repository) {
+        this.repository = repository;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Records a history row moving from {@code from} to {@code to}; a null {@code from} is a new row
+     * and a null {@code to} a deleted one.
+     */
+    public void record(String model, SyncStatus from, SyncStatus to) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(model, from, to);
+                }
+            });
+        } else {
+            apply(model, from, to);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.sync.stats.reconcile-interval-ms:60000}",
+            initialDelayString = "${app.sync.stats.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        Map<String, Map<SyncStatus, Long>> stored = new HashMap<>();
+        for (Object[] row : repository.countByModelAndStatus()) {
+            String model = row[0] == null ? UNKNOWN_MODEL : (String) row[0];
+            stored.computeIfAbsent(model, m -> new EnumMap<>(SyncStatus.class))
+                    .put((SyncStatus) row[1], (Long) row[2]);
+        }
+        long drift = 0;
+        for (String model : stored.keySet()) {
+            countsFor(model);
+        }
+        for (Map.Entry<String, Map<SyncStatus, LongAdder>> entry : counts.entrySet()) {
+            Map<SyncStatus, Long> actual = stored.getOrDefault(entry.getKey(), Map.of());
+            for (Map.Entry<SyncStatus, LongAdder> counter : entry.getValue().entrySet()) {
+                long delta = actual.getOrDefault(counter.getKey(), 0L) - counter.getValue().sum();
+                if (delta != 0) {
+                    counter.getValue().add(delta);
+                    drift += Math.abs(delta);
+                }
+            }
+        }
+        if (drift > 0) {
+            logger.info("Reconciled sync stats: drift={}", drift);
+        }
+    }
+
+    /**
+     * Current counts per status with a total, broken down per model, plus arrivals per status
+     * over the last 1m, 5m and 1h.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> summary = new HashMap<>();
+        Map<String, Object> models = new HashMap<>();
+        Map<SyncStatus, Long> totals = new EnumMap<>(SyncStatus.class);
+        for (Map.Entry<String, Map<SyncStatus, LongAdder>> entry : counts.entrySet()) {
+            Map<SyncStatus, Long> modelCounts = new EnumMap<>(SyncStatus.class);
+            entry.getValue().forEach((status, adder) -> modelCounts.put(status, adder.sum()));
+            modelCounts.forEach((status, count) -> totals.merge(status, count, Long::sum));
+            models.put(entry.getKey(), byStatus(modelCounts));
+        }
+        summary.putAll(byStatus(totals));
+        summary.put("models", models);
+
+        Map<String, Object> recent = new LinkedHashMap<>();
+        WINDOWS.forEach((name, millis) -> recent.put(name, byStatus(arrivals(millis))));
+        summary.put("recent", recent);
+        return summary;
+    }
+
+    public Map<SyncStatus, Long> totals() {
+        Map<SyncStatus, Long> totals = new EnumMap<>(SyncStatus.class);
+        for (Map<SyncStatus, LongAdder> modelCounts : counts.values()) {
+            modelCounts.forEach((status, adder) -> totals.merge(status, adder.sum(), Long::sum));
+        }
+        return totals;
+    }
+
+    private void apply(String model, SyncStatus from, SyncStatus to) {
+        Map<SyncStatus, LongAdder> modelCounts = countsFor(model == null ? UNKNOWN_MODEL : model);
+        if (from != null) {
+            modelCounts.get(from).decrement();
+        }
+        if (to != null) {
+            modelCounts.get(to).increment();
+            long now = System.currentTimeMillis();
+            long start = now - now % BUCKET_MILLIS;
+            Bucket bucket = buckets[(int) ((start / BUCKET_MILLIS) % BUCKETS)];
+            synchronized (bucket) {
+                if (bucket.start != start) {
+                    bucket.start = start;
+                    Arrays.fill(bucket.arrivals, 0L);
+                }
+                bucket.arrivals[to.ordinal()]++;
+            }
+        }
+    }
+
+    private Map<SyncStatus, LongAdder> countsFor(String model) {
+        return counts.computeIfAbsent(model, m -> {
+            Map<SyncStatus, LongAdder> modelCounts = new EnumMap<>(SyncStatus.class);
+            for (SyncStatus status : SyncStatus.values()) {
+                modelCounts.put(status, new LongAdder());
+            }
+            return modelCounts;
+        });
+    }
+
+    private Map<SyncStatus, Long> arrivals(long windowMillis) {
+        long now = System.currentTimeMillis();
+        long oldest = now - now % BUCKET_MILLIS - windowMillis + BUCKET_MILLIS;
+        Map<SyncStatus, Long> arrivals = new EnumMap<>(SyncStatus.class);
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                if (bucket.start >= oldest) {
+                    for (SyncStatus status : SyncStatus.values()) {
+                        arrivals.merge(status, bucket.arrivals[status.ordinal()], Long::sum);
+                    }
+                }
+            }
+        }
+        return arrivals;
+    }
+
+    private static Map<String, Object> byStatus(Map<SyncStatus, Long> statusCounts) {
+        Map<String, Object> result = new HashMap<>();
+        long total = 0;
+        for (SyncStatus status : SyncStatus.values()) {
+            long count = statusCounts.getOrDefault(status, 0L);
+            result.put(status.getValue(), count);
+            total += count;
+        }
+        result.put("total", total);
+        return result;
+    }
+
+    private static Map<String, Long> windows() {
+        Map<String, Long> windows = new LinkedHashMap<>();
+        windows.put("1m", 60_000L);
+        windows.put("5m", 300_000L);
+        windows.put("1h", 3_600_000L);
+        return windows;
+    }
+
+    private static final class Bucket {
+        private long start = -1;
+        private final long[] arrivals = new long[SyncStatus.values().length];
+    }
+}
@@ -0,0 +1,107 @@
+package com.syncbridge.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Time spent per pipeline stage during one sync. Stages are accumulated across chunks (and across
+ * partitions for parallel syncs, so they can add up to more than the wall-clock total), published as
+ * {@code sync.stage.duration} timers tagged with model and stage, and echoed in the response on request.
+ */
+public final class SyncTimings {
+
+    public enum Stage {
+        DESERIALIZE("deserialize"),
+        MAP("map"),
+        VALIDATE("validate"),
+        PERSIST("persist"),
+        HISTORY("history");
+
+        private final String value;
+
+        Stage(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    private final long startedAt = System.nanoTime();
+    private final AtomicLongArray nanos = new AtomicLongArray(Stage.values().length);
+
+    /**
+     * Adds the time elapsed since {@code startNanos} (a {@link System#nanoTime()} reading) to a stage.
+     */
+    public void since(Stage stage, long startNanos) {
+        add(stage, System.nanoTime() - startNanos);
+    }
+
+    public void add(Stage stage, long elapsedNanos) {
+        nanos.addAndGet(stage.ordinal(), elapsedNanos);
+    }
+
+    public <T> T time(Stage stage, Supplier<T> step) {
+        long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            since(stage, start);
+        }
+    }
+
+    public void time(Stage stage, Runnable step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+        } finally {
+            since(stage, start);
+        }
+    }
+
+    /**
+     * Records every stage that took time, plus the number of rows in the sync.
+     */
+    public void publish(MeterRegistry registry, String model, long rows) {
+        for (Stage stage : Stage.values()) {
+            long elapsed = nanos.get(stage.ordinal());
+            if (elapsed > 0) {
+                Timer.builder("sync.stage.duration")
+                        .tags("model", model, "stage", stage.getValue())
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(registry)
+                        .record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        }
+        DistributionSummary.builder("sync.rows")
+                .tags("model", model)
+                .baseUnit("rows")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry)
+                .record(rows);
+    }
+
+    /**
+     * Milliseconds per stage and the wall-clock total since this sync started.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> timings = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            timings.put(stage.getValue() + "Ms", millis(nanos.get(stage.ordinal())));
+        }
+        timings.put("totalMs", millis(System.nanoTime() - startedAt));
+        return timings;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.syncbridge.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class ContentHash {
+    private static final char SEPARATOR = '\u001f';
+    private static final char NULL_MARKER = '\u0000';
+
+    /**
+     * SHA-256 over the string form of each value, in order. Values are delimited so that
+     * ("ab", "c") and ("a", "bc") differ, and null is distinct from the empty string.
+     */
+    public static String of(Object... values) {
+        StringBuilder sb = new StringBuilder();
+        for (Object value : values) {
+            if (value == null) {
+                sb.append(NULL_MARKER);
+            } else {
+                sb.append(value);
+            }
+            sb.append(SEPARATOR);
+        }
+        return sha256(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String sha256(byte[] bytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}